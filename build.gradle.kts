@@ -1,6 +1,7 @@
 plugins {
     java
     id("io.quarkus")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -27,6 +28,11 @@ dependencies {
     // Quarkus Core
     implementation("io.quarkus:quarkus-rest")
     implementation("io.quarkus:quarkus-rest-jackson")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    // Native Brotli encoder for quarkus.http.compressors=br on the container platforms
+    runtimeOnly("com.aayushatharva.brotli4j:native-linux-x86_64")
+    runtimeOnly("com.aayushatharva.brotli4j:native-linux-aarch64")
     implementation("io.quarkus:quarkus-arc")
 
     // Hibernate ORM with Panache
@@ -42,19 +48,139 @@ dependencies {
     // Validation
     implementation("io.quarkus:quarkus-hibernate-validator")
 
+    // Caching
+    implementation("io.quarkus:quarkus-caffeine")
+
+    // Scheduler
+    implementation("io.quarkus:quarkus-scheduler")
+
+    // Messaging (Kafka)
+    implementation("io.quarkus:quarkus-messaging")
+    implementation("io.smallrye.reactive:smallrye-reactive-messaging-kafka")
+    implementation("org.apache.kafka:kafka-clients")
+
+    // Metrics
+    implementation("io.quarkus:quarkus-micrometer-registry-prometheus")
+
     // OpenAPI/Swagger
     implementation("io.quarkus:quarkus-smallrye-openapi")
 
     // Testing
     testImplementation("io.quarkus:quarkus-junit5")
     testImplementation("io.rest-assured:rest-assured")
+    testImplementation("io.smallrye.reactive:smallrye-reactive-messaging-in-memory")
+    // PostgreSQL started in-process for the tests of PostgreSQL-only SQL (PostgresDatabase)
+    testImplementation(platform("io.zonky.test.postgres:embedded-postgres-binaries-bom:16.4.0"))
+    testImplementation("io.zonky.test:embedded-postgres:2.1.0")
 }
 
 tasks.withType<Test> {
     systemProperty("java.util.logging.manager", "org.jboss.logmanager.LogManager")
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+    // Every @TestProfile starts another application in the same JVM
+    maxHeapSize = "1g"
+}
+
+// HTTP load benchmark (src/test/.../load): each API stack in turn, -Pload.levels=1,16,64,256 -Pload.duration=PT10S
+tasks.register<Test>("loadBenchmark") {
+    group = "benchmark"
+    description = "Compares throughput and latency of the blocking and virtual-thread stacks under load"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+    // The test application alone keeps about 300 MB live; the default 512 MB turns load into full GC pauses
+    maxHeapSize = "1g"
+    // Prints a stack trace whenever a virtual thread blocks while pinned to its carrier
+    jvmArgs("-Djdk.tracePinnedThreads=short")
+    systemProperty("load.db-latency", providers.gradleProperty("load.db-latency").getOrElse("PT0.002S"))
+    listOf("levels", "duration", "warmup").forEach { name ->
+        providers.gradleProperty("load.$name").orNull?.let { systemProperty("load.$name", it) }
+    }
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
     options.compilerArgs.add("-parameters")
 }
+
+// Microbenchmarks (src/jmh): ./gradlew jmh runs them, jmhCheck compares the run with the committed baseline
+jmh {
+    jmhVersion = "1.37"
+    includeTests = false
+    zip64 = true
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    timeOnIteration = "1s"
+    warmup = "1s"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    // -Pjmh.includes=EventEncodingBenchmark runs only the matching benchmarks
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline/results.json")
+
+tasks.register<Copy>("jmhBaseline") {
+    group = "benchmark"
+    description = "Records the last JMH run as the new baseline"
+    from(jmhResults)
+    into(jmhBaseline.asFile.parentFile)
+}
+
+tasks.register("jmhCheck") {
+    group = "benchmark"
+    description = "Fails when bytes allocated per operation grew beyond jmh.allocTolerance or a baseline benchmark " +
+        "did not run, warns on slower scores"
+    dependsOn("jmh")
+    val includes = providers.gradleProperty("jmh.includes").map { Regex(it) }
+    val allocTolerance = providers.gradleProperty("jmh.allocTolerance").orElse("0.10").map { it.toDouble() }
+    val timeTolerance = providers.gradleProperty("jmh.timeTolerance").orElse("0.25").map { it.toDouble() }
+    doLast {
+        // Allocation per operation is stable across machines, timings are not, so only allocation gates the build
+        fun load(file: File): Map<String, Map<*, *>> =
+            (groovy.json.JsonSlurper().parse(file) as List<*>).filterIsInstance<Map<*, *>>().associateBy {
+                "${it["benchmark"]}${it["params"] ?: ""}"
+            }
+        fun score(run: Map<*, *>, metric: String?): Double {
+            val values = if (metric == null) run["primaryMetric"] else (run["secondaryMetrics"] as Map<*, *>)[metric]
+            return ((values as Map<*, *>)["score"] as Number).toDouble()
+        }
+        val baseline = load(jmhBaseline.asFile)
+        val results = load(jmhResults.get().asFile)
+        val regressions = mutableListOf<String>()
+        // A benchmark that failed in setup has no result, which must not pass as "no regression"
+        baseline.filter { (key, base) ->
+            key !in results && includes.orNull?.containsMatchIn(base["benchmark"] as String) != false
+        }.keys.forEach { key -> regressions += "$key: missing from the run" }
+        results.forEach { (key, run) ->
+            val base = baseline[key] ?: return@forEach
+            val alloc = score(run, "gc.alloc.rate.norm")
+            val baseAlloc = score(base, "gc.alloc.rate.norm")
+            if (alloc > baseAlloc * (1 + allocTolerance.get())) {
+                regressions += "$key: %.0f B/op, baseline %.0f B/op".format(alloc, baseAlloc)
+            }
+            val time = score(run, null)
+            val baseTime = score(base, null)
+            if (time > baseTime * (1 + timeTolerance.get())) {
+                logger.warn("$key: %.3f us/op, baseline %.3f us/op".format(time, baseTime))
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions:\n" + regressions.joinToString("\n"))
+        }
+    }
+}
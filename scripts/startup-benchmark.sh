@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Startup Benchmark
+# Starts the packaged application repeatedly and reports the median time until the first request is answered and
+# the resident memory at that point, for every build found and every profile:
+#   jvm         build/quarkus-app/quarkus-run.jar        (./gradlew quarkusBuild)
+#   jvm-appcds  the same jar with a class data sharing archive, recorded on first use (delete it after a rebuild)
+#   native      build/*-runner                           (./gradlew quarkusBuild -Dquarkus.native.enabled=true)
+#
+# The prod profile needs the database and Kafka of docker-compose.yml (docker compose up -d postgres kafka), or
+# DB_HOST, DB_PORT, DB_NAME, DB_USERNAME, DB_PASSWORD and KAFKA_BOOTSTRAP_SERVERS pointing elsewhere. Apply the
+# migrations once before measuring fast-start, which skips them: QUARKUS_INIT_AND_EXIT=true java -jar ...
+#
+# Usage: scripts/startup-benchmark.sh [runs]    (RUNS=5, PROFILES="prod prod,fast-start", PORT=8080)
+
+set -euo pipefail
+
+RUNS="${1:-${RUNS:-5}}"
+PROFILES="${PROFILES:-prod prod,fast-start}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/events?limit=1"
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+
+cd "$(dirname "$0")/.."
+APP_DIR=build/quarkus-app
+LOG_DIR=build/startup
+mkdir -p "$LOG_DIR"
+
+median() {
+    printf '%s\n' "$@" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# measure <label> <profile> <command...>
+measure() {
+    local label="$1" profile="$2"
+    shift 2
+    local log="${LOG_DIR}/${label}-${profile//,/-}.log"
+    local times=() rss=()
+    for _ in $(seq "$RUNS"); do
+        local start pid
+        start=$(now_ms)
+        QUARKUS_PROFILE="$profile" QUARKUS_HTTP_PORT="$PORT" "$@" > "$log" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "${label} (${profile}) exited before answering, see ${log}" >&2
+                exit 1
+            fi
+            sleep 0.005
+        done
+        times+=($(( $(now_ms) - start )))
+        rss+=($(ps -o rss= -p "$pid"))
+        kill "$pid"
+        wait "$pid" || true
+    done
+    printf '%-12s %-18s %10s %10s\n' "$label" "$profile" "$(median "${times[@]}")" \
+        "$(( $(median "${rss[@]}") / 1024 ))"
+}
+
+if curl -sf -o /dev/null "$URL"; then
+    echo "Port ${PORT} already answers, stop that application first" >&2
+    exit 1
+fi
+
+printf '%-12s %-18s %10s %10s\n' "build" "profile" "ready (ms)" "RSS (MB)"
+for profile in $PROFILES; do
+    if [ -f "${APP_DIR}/quarkus-run.jar" ]; then
+        measure jvm "$profile" "$JAVA" -jar "${APP_DIR}/quarkus-run.jar"
+
+        # Same training run as Dockerfile.jvm: start without connections and exit; the class path must match later runs
+        if [ ! -f "${APP_DIR}/app-cds.jsa" ]; then
+            QUARKUS_PROFILE=prod,fast-start "$JAVA" -XX:ArchiveClassesAtExit="${APP_DIR}/app-cds.jsa" \
+                -Dquarkus.init-and-exit=true -jar "${APP_DIR}/quarkus-run.jar" > "${LOG_DIR}/appcds.log" 2>&1
+        fi
+        measure jvm-appcds "$profile" "$JAVA" -XX:SharedArchiveFile="${APP_DIR}/app-cds.jsa" \
+            -jar "${APP_DIR}/quarkus-run.jar"
+    fi
+    for runner in build/*-runner; do
+        if [ -x "$runner" ]; then
+            measure native "$profile" "$runner"
+        fi
+    done
+done
@@ -0,0 +1,74 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.resource.JacksonFormats;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a list response as JSON, Smile and CBOR, with the mappers the API negotiates between.
+ * Decoding stands for the consumer's side. The payload size of each encoding, raw and gzipped, is printed once per
+ * trial: it does not depend on the iteration, and JMH would sum a counter over the iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventEncodingBenchmark {
+
+    private static final TypeReference<List<EventResponseDTO>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<EventResponseDTO> responses;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = EventFixtures.objectMapper();
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> JacksonFormats.smile(json);
+            case "cbor" -> JacksonFormats.cbor(json);
+            default -> json;
+        };
+        writer = mapper.writerFor(EVENT_LIST);
+        reader = mapper.readerFor(EVENT_LIST);
+        responses = EventFixtures.events(size).stream().map(EventResponseDTO::fromEntity).toList();
+        encoded = writer.writeValueAsBytes(responses);
+        System.out.printf("%nPayload of %d events as %s: %d bytes, %d gzipped%n",
+                size, format, encoded.length, gzipped(encoded));
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
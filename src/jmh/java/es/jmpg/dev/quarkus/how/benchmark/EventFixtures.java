@@ -0,0 +1,106 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic test data shared by the benchmarks, shaped like a typical production row.
+ */
+final class EventFixtures {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    private EventFixtures() {
+    }
+
+    /**
+     * Same settings Quarkus applies to its default ObjectMapper, so dates are written as ISO-8601 strings.
+     * The modules are registered by hand: the JMH jar keeps only one of their {@code META-INF/services} files.
+     */
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new Jdk8Module())
+                .registerModule(new JavaTimeModule())
+                .registerModule(new ParameterNamesModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    static List<Event> events(int size) {
+        List<Event> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(event(i));
+        }
+        return events;
+    }
+
+    static Event event(int i) {
+        Event event = new Event();
+        event.id = (long) i + 1;
+        event.title = "Conference day " + i;
+        event.description = "Talks, workshops and networking for event number " + i;
+        event.location = "Hall " + (i % 12);
+        event.startDate = BASE.plusHours(i);
+        event.endDate = BASE.plusHours(i + 8);
+        event.capacity = 100 + i % 400;
+        event.availableSeats = event.capacity - i % 100;
+        event.status = Event.EventStatus.values()[i % Event.EventStatus.values().length];
+        event.createdAt = BASE.minusDays(30).plusSeconds(i);
+        event.updatedAt = event.createdAt.plusMinutes(5);
+        return event;
+    }
+
+    static LocalDateTime startOf(int i) {
+        return BASE.plusHours(i);
+    }
+
+    /**
+     * Writes {@code rows} fixture events straight through JDBC, one row at a time, so millions of rows can be
+     * loaded without holding them on the heap.
+     */
+    static void insert(Connection connection, int rows) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("insert into events (id, title, description, "
+                + "location, startDate, endDate, capacity, availableSeats, heldSeats, status, createdAt, updatedAt, "
+                + "version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                Event event = event(i);
+                insert.setLong(1, event.id);
+                insert.setString(2, event.title);
+                insert.setString(3, event.description);
+                insert.setString(4, event.location);
+                insert.setTimestamp(5, Timestamp.valueOf(event.startDate));
+                insert.setTimestamp(6, Timestamp.valueOf(event.endDate));
+                insert.setInt(7, event.capacity);
+                insert.setInt(8, event.availableSeats);
+                insert.setInt(9, event.heldSeats);
+                insert.setString(10, event.status.name());
+                insert.setTimestamp(11, Timestamp.valueOf(event.createdAt));
+                insert.setTimestamp(12, Timestamp.valueOf(event.updatedAt));
+                insert.setLong(13, event.version);
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    static List<EventDTO> dtos(int size) {
+        return events(size).stream().map(EventDTO::fromEntity).toList();
+    }
+}
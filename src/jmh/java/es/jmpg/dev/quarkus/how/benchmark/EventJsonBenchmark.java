@@ -0,0 +1,52 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the request and response bodies, including the ISO-8601 {@code LocalDateTime} fields.
+ * Readers and writers are built once, as Quarkus REST does, so only the per-request work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventJsonBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    int size;
+
+    private ObjectWriter responseWriter;
+    private ObjectReader requestReader;
+    private List<EventResponseDTO> responses;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = EventFixtures.objectMapper();
+        responseWriter = objectMapper.writerFor(new TypeReference<List<EventResponseDTO>>() {
+        });
+        requestReader = objectMapper.readerFor(new TypeReference<List<EventDTO>>() {
+        });
+        responses = EventFixtures.events(size).stream().map(EventResponseDTO::fromEntity).toList();
+        requestJson = objectMapper.writeValueAsBytes(EventFixtures.dtos(size));
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws IOException {
+        return responseWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<EventDTO> deserializeRequests() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+}
@@ -0,0 +1,58 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the DTO/entity copies done on every request, for one event and for list-sized batches.
+ * Run with the GC profiler ({@code ./gradlew jmh}) to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventMappingBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    int size;
+
+    private List<Event> events;
+    private List<EventDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        events = EventFixtures.events(size);
+        dtos = EventFixtures.dtos(size);
+    }
+
+    @Benchmark
+    public List<Event> dtoToEntity() {
+        List<Event> mapped = new ArrayList<>(size);
+        for (EventDTO dto : dtos) {
+            mapped.add(dto.toEntity());
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> entityToResponse() {
+        List<EventResponseDTO> mapped = new ArrayList<>(size);
+        for (Event event : events) {
+            mapped.add(EventResponseDTO.fromEntity(event));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public void entityToDto(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(EventDTO.fromEntity(event));
+        }
+    }
+}
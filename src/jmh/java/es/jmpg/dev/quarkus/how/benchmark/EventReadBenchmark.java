@@ -0,0 +1,74 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventService;
+import org.hibernate.FlushMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path before and after the switch to projections: loading managed entities and copying them into
+ * responses, against a {@code select new} projection with read-only, no-flush hints.
+ * Runs plain Hibernate on an in-memory H2 database; the GC profiler's B/op shows the heap saved per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventReadBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() throws SQLException {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Event.class)
+                .setProperty("hibernate.connection.url", URL)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("hibernate.bytecode.provider", "none")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            EventFixtures.insert(connection, rows);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> managedEntities() {
+        return sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("from Event e order by e.id", Event.class)
+                .getResultList()
+                .stream()
+                .map(EventResponseDTO::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> projection() {
+        return sessionFactory.fromTransaction(session -> session
+                .createQuery(EventService.RESPONSE_PROJECTION + " order by e.id", EventResponseDTO.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getResultList());
+    }
+}
@@ -0,0 +1,131 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventService;
+import org.hibernate.FlushMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.SelectionQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Latency of one 50-row search page over a million events, with the indexes of schema 1.0.0
+ * ({@code idx_events_status}, {@code idx_events_dates}) and with the end date indexes of 1.3.0.
+ * Queries have the shape {@code EventService.searchEvents} generates. Windows lie in the second half of the table,
+ * behind half a million finished events, and move on every call because H2 reuses the result of a repeated query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventSearchBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:search;DB_CLOSE_DELAY=-1";
+    private static final int PAGE = 50;
+    private static final int WINDOWS = 1024;
+    private static final int WINDOW_HOURS = 24 * 30;
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"1.0.0", "1.3.0"})
+    String schema;
+
+    private SessionFactory sessionFactory;
+    private int window;
+
+    @Setup
+    public void setUp() throws SQLException {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Event.class)
+                .setProperty("hibernate.connection.url", URL)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("hibernate.bytecode.provider", "none")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement ddl = connection.createStatement()) {
+            EventFixtures.insert(connection, rows);
+            ddl.execute("create index idx_events_dates on events (startDate, endDate)");
+            if ("1.0.0".equals(schema)) {
+                ddl.execute("create index idx_events_status on events (status)");
+            } else {
+                ddl.execute("create index idx_events_status_end on events (status, endDate, id)");
+                ddl.execute("create index idx_events_location_end on events (location, endDate, id)");
+                ddl.execute("create index idx_events_end on events (endDate, id)");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> inRange() {
+        int start = nextWindow();
+        return page(" where e.endDate > :from and e.startDate < :to order by e.endDate, e.id", query -> query
+                .setParameter("from", EventFixtures.startOf(start))
+                .setParameter("to", EventFixtures.startOf(start + WINDOW_HOURS)));
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> statusInRange() {
+        int start = nextWindow();
+        return page(" where e.status = :status and e.endDate > :from and e.startDate < :to"
+                + " order by e.status, e.endDate, e.id", query -> query
+                .setParameter("status", Event.EventStatus.SCHEDULED)
+                .setParameter("from", EventFixtures.startOf(start))
+                .setParameter("to", EventFixtures.startOf(start + WINDOW_HOURS)));
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> locationInRange() {
+        int start = nextWindow();
+        return page(" where e.location = :location and e.endDate > :from and e.startDate < :to"
+                + " order by e.location, e.endDate, e.id", query -> query
+                .setParameter("location", "Hall 3")
+                .setParameter("from", EventFixtures.startOf(start))
+                .setParameter("to", EventFixtures.startOf(start + WINDOW_HOURS)));
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> statusNextPage() {
+        int start = nextWindow();
+        return page(" where e.status = :status and e.endDate >= :date"
+                + " and (e.endDate > :date or (e.endDate = :date and e.id > :id))"
+                + " order by e.status, e.endDate, e.id", query -> query
+                .setParameter("status", Event.EventStatus.SCHEDULED)
+                .setParameter("date", EventFixtures.startOf(start))
+                .setParameter("id", 0L));
+    }
+
+    private int nextWindow() {
+        window = (window + 1) % WINDOWS;
+        return rows / 2 + window * (rows / 2 - WINDOW_HOURS) / WINDOWS;
+    }
+
+    private List<EventResponseDTO> page(String where, Consumer<SelectionQuery<EventResponseDTO>> binder) {
+        return sessionFactory.fromTransaction(session -> {
+            SelectionQuery<EventResponseDTO> query = session
+                    .createSelectionQuery(EventService.RESPONSE_PROJECTION + where, EventResponseDTO.class)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                    .setMaxResults(PAGE + 1);
+            binder.accept(query);
+            return query.getResultList();
+        });
+    }
+}
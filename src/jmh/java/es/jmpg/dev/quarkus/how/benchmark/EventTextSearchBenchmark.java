@@ -0,0 +1,43 @@
+package es.jmpg.dev.quarkus.how.benchmark;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.service.InMemoryEventTextIndex;
+import es.jmpg.dev.quarkus.how.service.TextTokens;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the in-process text index used on H2, over a million events:
+ * a selective query, a prefix shared by every event, and two-word queries whose words match
+ * 1/12 and all of the events before they are intersected and ranked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventTextSearchBenchmark {
+
+    @Param({"1000000"})
+    int events;
+
+    @Param({"number 123456", "conf", "hall 3", "workshop networking"})
+    String query;
+
+    private InMemoryEventTextIndex index;
+    private List<String> tokens;
+
+    @Setup
+    public void setUp() {
+        index = new InMemoryEventTextIndex();
+        for (int i = 0; i < events; i++) {
+            index.index(EventResponseDTO.fromEntity(EventFixtures.event(i)));
+        }
+        tokens = TextTokens.of(query);
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(tokens, 20);
+    }
+}
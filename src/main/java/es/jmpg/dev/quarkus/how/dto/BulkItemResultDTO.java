@@ -0,0 +1,34 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        NOT_FOUND,
+        CONFLICT,
+        FAILED,
+        SKIPPED
+    }
+
+    public int index;
+    public Status status;
+    public Long id;
+    public List<String> errors;
+
+    public BulkItemResultDTO() {
+    }
+
+    public BulkItemResultDTO(int index, Status status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,25 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import java.util.List;
+
+public class BulkResultDTO {
+
+    public int created;
+    public int updated;
+    public int failed;
+    public List<BulkItemResultDTO> items;
+
+    public BulkResultDTO() {
+    }
+
+    public BulkResultDTO(List<BulkItemResultDTO> items) {
+        this.items = items;
+        for (BulkItemResultDTO item : items) {
+            switch (item.status) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                default -> failed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+public class CacheStatsDTO {
+
+    public boolean enabled;
+    public long size;
+    public long hits;
+    public long misses;
+    public long evictions;
+    public double hitRate;
+}
@@ -0,0 +1,9 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class EventBulkUpdateDTO extends EventDTO {
+
+    @NotNull(message = "Event id is required")
+    public Long id;
+}
@@ -61,4 +61,12 @@ public class EventMessage {
         this.action = action;
         this.timestamp = LocalDateTime.now();
     }
+
+    public static EventMessage of(Long id, EventResponseDTO event, String action) {
+        if (event == null) {
+            return new EventMessage(id, null, null, null, null, null, null, null, null, action);
+        }
+        return new EventMessage(event.id, event.title, event.description, event.location,
+                event.startDate, event.endDate, event.capacity, event.availableSeats, event.status, action);
+    }
 }
@@ -0,0 +1,17 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import java.util.List;
+
+public class EventPageDTO {
+
+    public List<EventResponseDTO> items;
+    public String next;
+
+    public EventPageDTO() {
+    }
+
+    public EventPageDTO(List<EventResponseDTO> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+}
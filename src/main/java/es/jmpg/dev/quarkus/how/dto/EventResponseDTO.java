@@ -17,20 +17,36 @@ public class EventResponseDTO {
     public String status;
     public LocalDateTime createdAt;
     public LocalDateTime updatedAt;
+    public Long version;
+
+    public EventResponseDTO() {
+    }
+
+    /**
+     * Target of the {@code select new} projections in EventService, so read queries build responses
+     * straight from the result set without loading managed entities.
+     */
+    public EventResponseDTO(Long id, String title, String description, String location,
+                            LocalDateTime startDate, LocalDateTime endDate, Integer capacity, Integer availableSeats,
+                            Event.EventStatus status, LocalDateTime createdAt, LocalDateTime updatedAt,
+                            Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.capacity = capacity;
+        this.availableSeats = availableSeats;
+        this.status = status.name();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
 
     public static EventResponseDTO fromEntity(Event event) {
-        EventResponseDTO dto = new EventResponseDTO();
-        dto.id = event.id;
-        dto.title = event.title;
-        dto.description = event.description;
-        dto.location = event.location;
-        dto.startDate = event.startDate;
-        dto.endDate = event.endDate;
-        dto.capacity = event.capacity;
-        dto.availableSeats = event.availableSeats;
-        dto.status = event.status.name();
-        dto.createdAt = event.createdAt;
-        dto.updatedAt = event.updatedAt;
-        return dto;
+        return new EventResponseDTO(event.id, event.title, event.description, event.location,
+                event.startDate, event.endDate, event.capacity, event.availableSeats,
+                event.status, event.createdAt, event.updatedAt, event.version);
     }
 }
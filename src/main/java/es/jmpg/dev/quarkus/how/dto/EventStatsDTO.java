@@ -0,0 +1,17 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class EventStatsDTO {
+
+    public long totalEvents;
+    public Map<String, Long> eventsByStatus;
+    public long totalCapacity;
+    public long seatsSold;
+    public double occupancy;
+    public List<LocationStatsDTO> locations;
+    public LocalDateTime reconciledAt;
+    public long lastCorrections;
+}
@@ -0,0 +1,10 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+public class LocationStatsDTO {
+
+    public String location;
+    public long events;
+    public long capacity;
+    public long seatsSold;
+    public double occupancy;
+}
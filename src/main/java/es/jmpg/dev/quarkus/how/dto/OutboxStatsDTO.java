@@ -0,0 +1,11 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+public class OutboxStatsDTO {
+
+    public long pending;
+    public double lagSeconds;
+    public long published;
+    public long batches;
+    public int lastBatchSize;
+    public long lastBatchMillis;
+}
@@ -0,0 +1,11 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationDTO {
+
+    @NotNull(message = "Seats are required")
+    @Min(value = 1, message = "At least one seat must be reserved")
+    public Integer seats;
+}
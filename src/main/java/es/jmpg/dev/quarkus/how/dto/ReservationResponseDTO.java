@@ -0,0 +1,25 @@
+package es.jmpg.dev.quarkus.how.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class ReservationResponseDTO {
+
+    public Long eventId;
+    public Integer seats;
+
+    /**
+     * Seats left in the database after the operation. Omitted in write-behind mode, where part of the
+     * inventory is pooled on the node and the database value would be misleading.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer availableSeats;
+
+    public ReservationResponseDTO() {
+    }
+
+    public ReservationResponseDTO(Long eventId, Integer seats, Integer availableSeats) {
+        this.eventId = eventId;
+        this.seats = seats;
+        this.availableSeats = availableSeats;
+    }
+}
@@ -0,0 +1,60 @@
+package es.jmpg.dev.quarkus.how.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A COMPLETED or CANCELLED event moved out of {@code events} by the archive job, kept under its original id and
+ * as it was when it was archived. Archived events are read-only; rows are only ever inserted by the job.
+ */
+@Entity
+@Table(name = "events_archive")
+public class ArchivedEvent extends PanacheEntityBase {
+
+    @Id
+    public Long id;
+
+    @Column(nullable = false)
+    public String title;
+
+    @Column(length = 1000)
+    public String description;
+
+    @Column(nullable = false)
+    public String location;
+
+    @Column(nullable = false)
+    public LocalDateTime startDate;
+
+    @Column(nullable = false)
+    public LocalDateTime endDate;
+
+    @Column(nullable = false)
+    public Integer capacity;
+
+    @Column(nullable = false)
+    public Integer availableSeats;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public Event.EventStatus status;
+
+    @Column(nullable = false)
+    public LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    public LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    public Long version;
+
+    @Column(nullable = false)
+    public LocalDateTime archivedAt;
+}
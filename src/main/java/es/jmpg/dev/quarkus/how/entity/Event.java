@@ -4,6 +4,7 @@ import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
@@ -11,8 +12,14 @@ import java.time.LocalDateTime;
  * Event entity uses Quarkus Panache ORM which extends Hibernate with active record pattern.
  * Panache provides static finder methods (findById, list, etc.) reducing boilerplate vs standard JPA,
  * and faster compile-time code generation. Spring Data JPA requires interfaces and more runtime reflection.
+ * Updates only write the columns that changed, so flushing an edited entity never overwrites availableSeats
+ * that a concurrent reservation decremented in place.
+ * {@code version} is bumped by every write, including the in-place seat updates, and serves as the ETag.
+ * It is not a JPA {@code @Version}: writers bump it with an UPDATE that takes the row lock first, so edits
+ * never fail just because a reservation landed in between.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "events")
 public class Event extends PanacheEntity {
 
@@ -41,6 +48,12 @@ public class Event extends PanacheEntity {
     @Column(nullable = false)
     public Integer availableSeats;
 
+    /**
+     * Part of {@code availableSeats} held by write-behind seat counters, see {@link SeatAllotment}.
+     */
+    @Column(nullable = false)
+    public Integer heldSeats = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     public EventStatus status = EventStatus.SCHEDULED;
@@ -51,6 +64,9 @@ public class Event extends PanacheEntity {
     @Column(nullable = false)
     public LocalDateTime updatedAt;
 
+    @Column(nullable = false)
+    public Long version = 0L;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
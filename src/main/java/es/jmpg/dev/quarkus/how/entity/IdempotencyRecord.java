@@ -0,0 +1,36 @@
+package es.jmpg.dev.quarkus.how.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response of a write sent with an {@code Idempotency-Key}, inserted in the same transaction as the write.
+ * A retry of the same request is answered from here; rows are deleted once they expire.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord extends PanacheEntityBase {
+
+    @Id
+    public String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    public String requestHash;
+
+    @Column(nullable = false)
+    public int status;
+
+    @Column(nullable = false, length = 4000)
+    public String response;
+
+    @Column(nullable = false)
+    public long version;
+
+    @Column(nullable = false)
+    public LocalDateTime expiresAt;
+}
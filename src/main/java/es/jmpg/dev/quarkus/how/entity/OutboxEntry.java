@@ -0,0 +1,42 @@
+package es.jmpg.dev.quarkus.how.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change message waiting to be published, stored in the same transaction as the event mutation it describes.
+ * Rows are drained in event version order by the outbox relay and deleted once the broker acknowledged them.
+ */
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEntry extends PanacheEntity {
+
+    @Column(nullable = false)
+    public Long eventId;
+
+    @Column(nullable = false)
+    public String action;
+
+    /**
+     * Version of the event after the change, {@link Long#MAX_VALUE} for removals, which are always the last change.
+     * Unlike the id, which comes from per-node sequence blocks, it follows commit order within an event.
+     */
+    @Column(nullable = false)
+    public Long eventVersion;
+
+    @Column(nullable = false, length = 4000)
+    public String payload;
+
+    @Column(nullable = false, updatable = false)
+    public LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
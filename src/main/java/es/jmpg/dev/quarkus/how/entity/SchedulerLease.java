@@ -0,0 +1,27 @@
+package es.jmpg.dev.quarkus.how.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-limited claim of one node on a cluster-wide job. Rows are seeded by Liquibase and only ever
+ * updated, so taking a lease is a single conditional UPDATE that at most one node can win.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease extends PanacheEntityBase {
+
+    @Id
+    public String name;
+
+    @Column(nullable = false)
+    public String owner;
+
+    @Column(nullable = false)
+    public LocalDateTime expiresAt;
+}
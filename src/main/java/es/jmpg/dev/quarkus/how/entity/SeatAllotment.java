@@ -0,0 +1,51 @@
+package es.jmpg.dev.quarkus.how.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Seats of one event held by the write-behind counter of one node, counted in the event's {@code heldSeats}.
+ * {@code seats} is what the node held at its last flush; the node renews {@code expiresAt} with every flush, and an
+ * allotment that expires, because its node died, is reclaimed by any other node.
+ */
+@Entity
+@Table(name = "seat_allotments")
+@IdClass(SeatAllotment.Key.class)
+public class SeatAllotment extends PanacheEntityBase {
+
+    @Id
+    public Long eventId;
+
+    @Id
+    public String holder;
+
+    @Column(nullable = false)
+    public int seats;
+
+    @Column(nullable = false)
+    public LocalDateTime expiresAt;
+
+    public static class Key implements Serializable {
+
+        public Long eventId;
+        public String holder;
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Objects.equals(eventId, key.eventId) && Objects.equals(holder, key.holder);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, holder);
+        }
+    }
+}
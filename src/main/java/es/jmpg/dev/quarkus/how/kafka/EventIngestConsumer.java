@@ -0,0 +1,154 @@
+package es.jmpg.dev.quarkus.how.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import es.jmpg.dev.quarkus.how.dto.EventMessage;
+import es.jmpg.dev.quarkus.how.service.EventIngestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.Blocking;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes upstream {@link EventMessage} records from the {@code event-ingest} channel in batches of up to
+ * {@code max.poll.records} and hands each batch to {@link EventIngestService} as one transaction.
+ * The batch is acknowledged when this method returns, after the commit, so its offsets are only committed once the
+ * changes are stored. A batch that fails, on a deadlock or a lost connection, is applied again up to
+ * {@code events.ingest.retry.max-attempts} times with a doubling delay, and the timestamp check makes the replay
+ * harmless; after that it is nacked and the channel's {@code failure-strategy} sends its records to the dead-letter
+ * topic, so the partition moves on instead of the channel stopping. Batches of one consumer are processed in order,
+ * and {@code partitions} consumers run side by side. Records that are not valid JSON are logged and skipped rather
+ * than blocking their partition.
+ */
+@ApplicationScoped
+public class EventIngestConsumer {
+
+    @Inject
+    EventIngestService ingestService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "events.ingest.retry.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "events.ingest.retry.initial-delay", defaultValue = "PT0.5S")
+    Duration initialDelay;
+
+    private ObjectReader reader;
+    private DistributionSummary batchSize;
+    private Timer batchTimer;
+    private Counter created;
+    private Counter updated;
+    private Counter deleted;
+    private Counter stale;
+    private Counter rejected;
+    private Counter retries;
+    private volatile double recordAgeSeconds;
+
+    @PostConstruct
+    void registerMetrics() {
+        reader = objectMapper.readerFor(EventMessage.class);
+        batchSize = DistributionSummary.builder("events.ingest.batch.size")
+                .description("Records per ingested batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchTimer = Timer.builder("events.ingest.batches")
+                .description("Time to apply and commit one ingested batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        created = records("created");
+        updated = records("updated");
+        deleted = records("deleted");
+        stale = records("stale");
+        rejected = records("rejected");
+        retries = Counter.builder("events.ingest.retries")
+                .description("Ingested batches applied again after a failure")
+                .register(registry);
+        // Not the consumer lag: the Kafka client reports that as kafka.consumer.fetch.manager.records.lag.max
+        Gauge.builder("events.ingest.record.age", this, consumer -> consumer.recordAgeSeconds)
+                .description("Age of the newest record of the last ingested batch when it was committed")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Incoming("event-ingest")
+    @Blocking
+    public void consume(List<String> records) {
+        long start = System.nanoTime();
+        List<EventMessage> messages = new ArrayList<>(records.size());
+        int malformed = 0;
+        for (String record : records) {
+            try {
+                messages.add(reader.readValue(record));
+            } catch (JsonProcessingException e) {
+                Log.warnf("Skipped ingested record that is not an EventMessage: %s", e.getOriginalMessage());
+                malformed++;
+            }
+        }
+
+        EventIngestService.Outcome outcome = apply(messages);
+
+        batchSize.record(records.size());
+        created.increment(outcome.created());
+        updated.increment(outcome.updated());
+        deleted.increment(outcome.deleted());
+        stale.increment(outcome.stale());
+        rejected.increment(outcome.rejected() + malformed);
+        messages.stream()
+                .map(message -> message.timestamp)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .ifPresent(newest -> recordAgeSeconds = Math.max(0,
+                        Duration.between(newest, LocalDateTime.now()).toMillis() / 1000.0));
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private EventIngestService.Outcome apply(List<EventMessage> messages) {
+        Duration delay = initialDelay;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return ingestService.apply(messages);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Log.warnf(e, "Ingested batch failed on attempt %d of %d, retrying in %s", attempt, maxAttempts, delay);
+                retries.increment();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                delay = delay.multipliedBy(2);
+            }
+        }
+    }
+
+    private Counter records(String result) {
+        return Counter.builder("events.ingest.records")
+                .description("Ingested records by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,45 @@
+package es.jmpg.dev.quarkus.how.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.jmpg.dev.quarkus.how.dto.EventMessage;
+import es.jmpg.dev.quarkus.how.entity.OutboxEntry;
+import es.jmpg.dev.quarkus.how.service.EventChange;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Records every event mutation as an outbox row inside the mutation's own transaction.
+ * The request path only pays for one extra INSERT; it never waits for the broker, and a message exists
+ * if and only if the change was committed.
+ */
+@ApplicationScoped
+public class EventOutbox {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    void onChange(@Observes EventChange change) {
+        // Seat counters change outside the event write paths and are not part of the published feed
+        if (change.action == EventChange.Action.SEATS_CHANGED) {
+            return;
+        }
+        OutboxEntry entry = new OutboxEntry();
+        entry.eventId = change.eventId;
+        entry.action = change.action.name();
+        entry.eventVersion = change.event != null ? change.event.version : Long.MAX_VALUE;
+        entry.payload = serialize(EventMessage.of(change.eventId, change.event, change.action.name()));
+        entry.persist();
+    }
+
+    private String serialize(EventMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
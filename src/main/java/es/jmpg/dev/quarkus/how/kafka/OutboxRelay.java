@@ -0,0 +1,171 @@
+package es.jmpg.dev.quarkus.how.kafka;
+
+import es.jmpg.dev.quarkus.how.dto.OutboxStatsDTO;
+import es.jmpg.dev.quarkus.how.entity.OutboxEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the {@code event-changes} channel.
+ * A batch is locked, handed to the producer without waiting between records, so the Kafka client can compress
+ * and pipeline them, and deleted only after every record was acknowledged.
+ * Records are keyed by event id, so with an idempotent producer all changes of one event land on one
+ * partition in the order they are sent. They are sent by event and event version rather than by id: each node
+ * allocates ids in blocks of the sequence, so a later change written by another node can have a lower id.
+ * A change only commits after the previous change of its event, so a batch never holds a change without the
+ * pending ones before it. The row lock also keeps a second node from publishing the same rows.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    @Inject
+    @Channel("event-changes")
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 2048)
+    Emitter<String> emitter;
+
+    @ConfigProperty(name = "events.outbox.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "events.outbox.ack-timeout", defaultValue = "PT30S")
+    Duration ackTimeout;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+    private volatile OutboxStatsDTO lastStats = new OutboxStatsDTO();
+    private Timer batchTimer;
+
+    /**
+     * Pending rows and lag are sampled by the relay after each drain rather than on scrape,
+     * so a Prometheus scrape never runs a query.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("events.outbox.published", published, AtomicLong::get)
+                .description("Outbox records acknowledged by Kafka")
+                .register(registry);
+        Gauge.builder("events.outbox.pending", this, relay -> relay.lastStats.pending)
+                .description("Outbox rows waiting to be published")
+                .register(registry);
+        Gauge.builder("events.outbox.lag", this, relay -> relay.lastStats.lagSeconds)
+                .description("Age of the oldest unpublished outbox row")
+                .baseUnit("seconds")
+                .register(registry);
+        batchTimer = Timer.builder("events.outbox.batches")
+                .description("Time to publish, acknowledge and delete one outbox batch")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Scheduled(every = "${events.outbox.poll-interval:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP,
+            skipExecutionIf = Scheduled.ApplicationNotRunning.class)
+    void drain() {
+        try {
+            while (publishBatch() == batchSize) {
+                // keep draining while the backlog fills whole batches
+            }
+            lastStats = stats();
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Outbox batch failed, it will be retried on the next poll");
+        }
+    }
+
+    @Transactional
+    public int publishBatch() {
+        long start = System.nanoTime();
+        List<OutboxEntry> batch = OutboxEntry.<OutboxEntry>findAll(Sort.by("eventId", "eventVersion", "id"))
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .page(0, batchSize)
+                .list();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            acks[i] = send(batch.get(i));
+        }
+        awaitAcks(acks);
+
+        OutboxEntry.delete("id in ?1", batch.stream().map(entry -> entry.id).toList());
+
+        published.addAndGet(batch.size());
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        long elapsed = System.nanoTime() - start;
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    public OutboxStatsDTO stats() {
+        OutboxStatsDTO stats = new OutboxStatsDTO();
+        stats.pending = OutboxEntry.count();
+        LocalDateTime oldest = OutboxEntry.getEntityManager()
+                .createQuery("select min(o.createdAt) from OutboxEntry o", LocalDateTime.class)
+                .getSingleResult();
+        stats.lagSeconds = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+        stats.published = published.get();
+        stats.batches = batches.get();
+        stats.lastBatchSize = lastBatchSize;
+        stats.lastBatchMillis = lastBatchMillis;
+        return stats;
+    }
+
+    private CompletableFuture<Void> send(OutboxEntry entry) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        emitter.send(Message.of(entry.payload)
+                .addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                        .withKey(String.valueOf(entry.eventId))
+                        .build())
+                .withAck(() -> {
+                    acked.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(failure -> {
+                    acked.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        return acked;
+    }
+
+    private void awaitAcks(CompletableFuture<?>[] acks) {
+        try {
+            CompletableFuture.allOf(acks).get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for outbox acknowledgements", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox batch was not acknowledged by the broker", e);
+        }
+    }
+}
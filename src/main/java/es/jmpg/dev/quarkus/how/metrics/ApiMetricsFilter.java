@@ -0,0 +1,46 @@
+package es.jmpg.dev.quarkus.how.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+/**
+ * Times every resource method of both API stacks as {@code events.api.requests}, tagged by resource,
+ * operation (method name) and HTTP status. Subtracting {@code events.db.operations} for the same call shows
+ * how much went to mapping and serialization rather than the database.
+ * Streamed lists are timed until the response starts; {@code http.server.requests} covers the full body.
+ */
+public class ApiMetricsFilter {
+
+    static final String API_REQUESTS = "events.api.requests";
+
+    private static final String SAMPLE = ApiMetricsFilter.class.getName() + ".sample";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ServerRequestFilter
+    public void start(ContainerRequestContext request) {
+        request.setProperty(SAMPLE, Timer.start(registry));
+    }
+
+    @ServerResponseFilter
+    public void stop(ContainerRequestContext request, ContainerResponseContext response, SimpleResourceInfo resource) {
+        if (!(request.getProperty(SAMPLE) instanceof Timer.Sample sample)
+                || resource == null || resource.getResourceClass() == null) {
+            return;
+        }
+        sample.stop(Timer.builder(API_REQUESTS)
+                .description("Resource method latency up to the start of the response")
+                .tag("resource", resource.getResourceClass().getSimpleName())
+                .tag("operation", resource.getMethodName())
+                .tag("status", String.valueOf(response.getStatus()))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,18 @@
+package es.jmpg.dev.quarkus.how.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times every business method of the annotated bean as {@code events.db.operations}, tagged by component,
+ * operation (method name) and status ({@code ok} or the exception thrown).
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbTimed {
+}
@@ -0,0 +1,43 @@
+package es.jmpg.dev.quarkus.how.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs outside the transaction interceptor, so the recorded time includes the commit and its flush.
+ */
+@DbTimed
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class DbTimedInterceptor {
+
+    static final String DB_OPERATIONS = "events.db.operations";
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    Object time(InvocationContext context) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        String status = "ok";
+        try {
+            return context.proceed();
+        } catch (Exception e) {
+            status = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(DB_OPERATIONS)
+                    .description("Service calls that hit the database")
+                    .tag("component", context.getMethod().getDeclaringClass().getSimpleName())
+                    .tag("operation", context.getMethod().getName())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+/**
+ * Concurrency limit that follows observed latency, after the gradient algorithm of Netflix' concurrency-limits.
+ * A long-term average of the response time stands for the latency the backend has when it is not queueing; the
+ * ratio to a short-term average is the gradient. While latency is near its long-term level the limit grows by about
+ * the square root of itself per sample, so it probes for more capacity; once requests start queueing in the database
+ * pool and latency climbs, the gradient falls below one and the limit shrinks towards what the backend can serve
+ * without a queue. The limit only grows while at least half of it is in use, so an idle service does not talk itself
+ * into an unbounded limit.
+ */
+final class AdaptiveLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+    private int inFlight;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the limit are in flight.
+     */
+    synchronized boolean tryAcquire(double share) {
+        if (inFlight >= Math.max(1, (int) (limit * share))) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Returns a slot without a latency sample, for requests whose duration says nothing about the backend.
+     */
+    synchronized void release() {
+        inFlight--;
+    }
+
+    synchronized void release(long rttNanos) {
+        int inFlightAtEnd = inFlight--;
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+        // After an overload the long-term average is inflated; let it catch up with the recovered latency quickly
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtEnd < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
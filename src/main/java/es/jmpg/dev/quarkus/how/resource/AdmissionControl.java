@@ -0,0 +1,134 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits in front of the {@link AdmissionControlled} resources, so a slow database sheds load
+ * with an immediate {@code 503} and {@code Retry-After} instead of queueing requests in the worker pool until every
+ * one of them times out.
+ * Reads and writes have separate {@link AdaptiveLimit}s, each following the latency of its own single-event requests.
+ * {@link BulkRead} lists may only take {@code events.admission.list-share} of the read limit and are turned away
+ * while writes are at their limit, so writes and single reads keep their capacity when the database is saturated.
+ * The filter runs on the event loop, before a worker thread is taken.
+ */
+public class AdmissionControl {
+
+    static final String ADMISSION_LIMIT = "events.admission.limit";
+    static final String ADMISSION_IN_FLIGHT = "events.admission.inflight";
+    static final String ADMISSION_REJECTED = "events.admission.rejected";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "events.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "events.admission.read.initial-limit", defaultValue = "20")
+    int readInitialLimit;
+
+    @ConfigProperty(name = "events.admission.read.min-limit", defaultValue = "8")
+    int readMinLimit;
+
+    @ConfigProperty(name = "events.admission.read.max-limit", defaultValue = "200")
+    int readMaxLimit;
+
+    @ConfigProperty(name = "events.admission.write.initial-limit", defaultValue = "20")
+    int writeInitialLimit;
+
+    @ConfigProperty(name = "events.admission.write.min-limit", defaultValue = "8")
+    int writeMinLimit;
+
+    @ConfigProperty(name = "events.admission.write.max-limit", defaultValue = "200")
+    int writeMaxLimit;
+
+    @ConfigProperty(name = "events.admission.list-share", defaultValue = "0.5")
+    double listShare;
+
+    @ConfigProperty(name = "events.admission.retry-after", defaultValue = "PT1S")
+    Duration retryAfter;
+
+    private AdaptiveLimit reads;
+    private AdaptiveLimit writes;
+    private Map<String, Counter> rejected;
+
+    @PostConstruct
+    void init() {
+        reads = new AdaptiveLimit(readInitialLimit, readMinLimit, readMaxLimit);
+        writes = new AdaptiveLimit(writeInitialLimit, writeMinLimit, writeMaxLimit);
+        register("read", reads);
+        register("write", writes);
+        rejected = Map.of(
+                "read", rejectedCounter("read", "read"),
+                "list", rejectedCounter("read", "list"),
+                "write", rejectedCounter("write", "write"));
+    }
+
+    // Non-blocking filters have to run ahead of every other filter
+    @ServerRequestFilter(nonBlocking = true, priority = Priorities.USER - 100)
+    public Response admit(ContainerRequestContext request, ResourceInfo resource, RoutingContext routing) {
+        if (!enabled || resource.getResourceClass() == null
+                || !resource.getResourceClass().isAnnotationPresent(AdmissionControlled.class)) {
+            return null;
+        }
+        boolean write = !HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod());
+        boolean list = !write && resource.getResourceMethod().isAnnotationPresent(BulkRead.class);
+
+        AdaptiveLimit limit = write ? writes : reads;
+        // A full write budget means the database is the bottleneck; lists are the cheapest load to give up
+        boolean admitted = list
+                ? writes.inFlight() < writes.limit() && limit.tryAcquire(listShare)
+                : limit.tryAcquire(1.0);
+        if (!admitted) {
+            rejected.get(write ? "write" : list ? "list" : "read").increment();
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Math.max(1, retryAfter.toSeconds()))
+                    .build();
+        }
+
+        long start = System.nanoTime();
+        // Lists take as long as they are large, so only single-event requests say how the database is doing
+        routing.addEndHandler(ignored -> {
+            if (list) {
+                limit.release();
+            } else {
+                limit.release(System.nanoTime() - start);
+            }
+        });
+        return null;
+    }
+
+    private void register(String budget, AdaptiveLimit limit) {
+        Gauge.builder(ADMISSION_LIMIT, limit, AdaptiveLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("budget", budget)
+                .register(registry);
+        Gauge.builder(ADMISSION_IN_FLIGHT, limit, AdaptiveLimit::inFlight)
+                .description("Requests currently holding an admission slot")
+                .tag("budget", budget)
+                .register(registry);
+    }
+
+    private Counter rejectedCounter(String budget, String kind) {
+        return Counter.builder(ADMISSION_REJECTED)
+                .description("Requests turned away with 503 because their budget was full")
+                .tag("budget", budget)
+                .tag("request", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes response entities as Smile or CBOR when that is the negotiated media type.
+ */
+@Provider
+@Produces({JacksonFormats.APPLICATION_SMILE, JacksonFormats.APPLICATION_CBOR})
+public class BinaryJacksonWriter implements MessageBodyWriter<Object> {
+
+    @Inject
+    JacksonFormats jacksonFormats;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mediaType.isCompatible(JacksonFormats.APPLICATION_SMILE_TYPE)
+                || mediaType.isCompatible(JacksonFormats.APPLICATION_CBOR_TYPE);
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        ObjectMapper mapper = jacksonFormats.mapperFor(mediaType);
+        mapper.writerFor(mapper.constructType(genericType)).writeValue(entityStream, entity);
+    }
+}
@@ -0,0 +1,37 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Sends responses smaller than {@code events.compression.min-size} uncompressed.
+ * Below about a kilobyte gzip and Brotli save a few hundred bytes at most and cost more CPU than they save in
+ * transfer time. Only bodies with a known length are judged; streamed lists are always large enough to compress.
+ */
+@ApplicationScoped
+public class CompressionThreshold {
+
+    private static final int PRIORITY = 100;
+
+    @ConfigProperty(name = "events.compression.min-size", defaultValue = "1024")
+    long minSize;
+
+    void register(@Observes Filters filters) {
+        // Headers-end handlers run last-registered first, so this one sees the decision of the compression handler
+        filters.register(context -> {
+            MultiMap headers = context.response().headers();
+            context.addHeadersEndHandler(ignored -> {
+                String length = headers.get(HttpHeaders.CONTENT_LENGTH);
+                if (length != null && !headers.contains(HttpHeaders.CONTENT_ENCODING)
+                        && Long.parseLong(length) < minSize) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+                }
+            });
+            context.next();
+        }, PRIORITY);
+    }
+}
@@ -0,0 +1,79 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Conditional request handling shared by both API stacks.
+ * A single event is tagged with its version, a collection with its count and last update, so a client that
+ * already holds the current representation gets {@code 304 Not Modified} without the body being rendered.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static EntityTag of(long version) {
+        return new EntityTag(Long.toString(version));
+    }
+
+    static EntityTag of(String collectionVersion) {
+        return new EntityTag(collectionVersion);
+    }
+
+    /**
+     * Binary encodings of a collection get their own tag, so a JSON tag never validates a cached Smile body.
+     */
+    static EntityTag of(String collectionVersion, MediaType type) {
+        if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            return of(collectionVersion);
+        }
+        return new EntityTag(collectionVersion + "-" + type.getSubtype());
+    }
+
+    static String header(EntityTag tag) {
+        return "\"" + tag.getValue() + "\"";
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so {@code W/"3"} matches {@code "3"}.
+     */
+    static boolean matches(String ifNoneMatch, EntityTag current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = header(current);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when the header is absent or {@code *}.
+     * Anything that cannot strongly match a version of this event fails the precondition outright.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the failed precondition
+            }
+        }
+        throw new ClientErrorException("If-Match must hold a single strong ETag of this event",
+                Response.Status.PRECONDITION_FAILED);
+    }
+}
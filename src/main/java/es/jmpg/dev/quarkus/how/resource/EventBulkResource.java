@@ -0,0 +1,108 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.jmpg.dev.quarkus.how.dto.BulkResultDTO;
+import es.jmpg.dev.quarkus.how.dto.EventBulkUpdateDTO;
+import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.service.BulkEventService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk writes for ingestion jobs. The body is either a JSON array or NDJSON (one event object per line);
+ * both are read item by item from the request stream. The response always lists one result per input item,
+ * in input order, so clients can retry exactly the items that failed.
+ */
+@Path("/api/events/bulk")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes({MediaType.APPLICATION_JSON, EventBulkResource.NDJSON})
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class EventBulkResource {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    BulkEventService bulkEventService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "events.bulk.max-items", defaultValue = "10000")
+    int maxItems;
+
+    @POST
+    @Operation(summary = "Create events in bulk", description = "Validates and creates many events in chunked batches")
+    @APIResponse(
+            responseCode = "200",
+            description = "Per-item results",
+            content = @Content(schema = @Schema(implementation = BulkResultDTO.class))
+    )
+    @APIResponse(responseCode = "400", description = "Malformed body or unknown mode")
+    @APIResponse(responseCode = "413", description = "Too many items in one request")
+    public BulkResultDTO createEvents(
+            @Parameter(description = "Failure mode: all-or-nothing or per-chunk")
+            @QueryParam("mode") String mode,
+            InputStream body) {
+        BulkEventService.FailureMode failureMode = bulkEventService.failureMode(mode);
+        return bulkEventService.createEvents(readItems(body, EventDTO.class), failureMode);
+    }
+
+    @PUT
+    @Operation(summary = "Update events in bulk", description = "Validates and updates many events, each item carries its id")
+    @APIResponse(
+            responseCode = "200",
+            description = "Per-item results",
+            content = @Content(schema = @Schema(implementation = BulkResultDTO.class))
+    )
+    @APIResponse(responseCode = "400", description = "Malformed body or unknown mode")
+    @APIResponse(responseCode = "413", description = "Too many items in one request")
+    public BulkResultDTO updateEvents(
+            @Parameter(description = "Failure mode: all-or-nothing or per-chunk")
+            @QueryParam("mode") String mode,
+            InputStream body) {
+        BulkEventService.FailureMode failureMode = bulkEventService.failureMode(mode);
+        return bulkEventService.updateEvents(readItems(body, EventBulkUpdateDTO.class), failureMode);
+    }
+
+    /**
+     * Jackson unwraps a top-level array and otherwise reads whitespace-separated root values,
+     * so the same iterator handles both body formats.
+     */
+    private <T> List<T> readItems(InputStream body, Class<T> type) {
+        List<T> items = new ArrayList<>();
+        try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (items.size() == maxItems) {
+                    throw new ClientErrorException("A bulk request accepts at most " + maxItems + " items",
+                            Response.Status.REQUEST_ENTITY_TOO_LARGE);
+                }
+                items.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed bulk body: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (items.isEmpty()) {
+            throw new BadRequestException("A bulk request needs at least one item");
+        }
+        return items;
+    }
+}
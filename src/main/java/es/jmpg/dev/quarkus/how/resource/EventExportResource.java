@@ -0,0 +1,91 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventExporter;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Bulk export for offline consumers, streamed row by row from the database to the client.
+ * Exports run for as long as the client takes to read them, so they are not {@link AdmissionControlled}: their
+ * latency says nothing about the database and would only hold slots that short requests need.
+ */
+@Path("/api/events/export")
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class EventExportResource {
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    static final String TEXT_CSV = "text/csv";
+
+    @Inject
+    EventExporter exporter;
+
+    @GET
+    @Produces({APPLICATION_NDJSON, TEXT_CSV})
+    @Operation(summary = "Export events",
+            description = "Streams every matching event in id order, as NDJSON or CSV. An interrupted export "
+                    + "resumes with after set to the last id received")
+    @APIResponse(responseCode = "200", description = "Matching events, one per line")
+    @APIResponse(responseCode = "400", description = "Invalid format, status, date or id")
+    public Response exportEvents(
+            @Parameter(description = "ndjson or csv")
+            @QueryParam("format") @DefaultValue("ndjson") String format,
+            @Parameter(description = "Event status")
+            @QueryParam("status") String status,
+            @Parameter(description = "Only events starting at or after this instant (ISO-8601 local date-time)")
+            @QueryParam("from") String from,
+            @Parameter(description = "Only events starting before this instant (ISO-8601 local date-time)")
+            @QueryParam("to") String to,
+            @Parameter(description = "Only events with a higher id, to resume an export")
+            @QueryParam("after") Long after) {
+        EventExporter.Format exportFormat = format(format);
+        Event.EventStatus eventStatus = status != null ? eventStatus(status) : null;
+        LocalDateTime fromDate = dateTime("from", from);
+        LocalDateTime toDate = dateTime("to", to);
+
+        StreamingOutput body = output -> exporter.export(exportFormat, eventStatus, fromDate, toDate, after, output);
+        String type = exportFormat == EventExporter.Format.CSV ? TEXT_CSV + "; charset=UTF-8" : APPLICATION_NDJSON;
+        String file = "events." + exportFormat.name().toLowerCase();
+        return Response.ok(body, type)
+                .header("Content-Disposition", "attachment; filename=\"" + file + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .build();
+    }
+
+    private static EventExporter.Format format(String format) {
+        try {
+            return EventExporter.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format must be ndjson or csv");
+        }
+    }
+
+    private static LocalDateTime dateTime(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(name + " must be an ISO-8601 local date-time");
+        }
+    }
+
+    private static Event.EventStatus eventStatus(String status) {
+        try {
+            return Event.EventStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown status " + status);
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package es.jmpg.dev.quarkus.how.resource;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import es.jmpg.dev.quarkus.how.dto.CacheStatsDTO;
 import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.dto.EventPageDTO;
 import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.dto.ReservationDTO;
+import es.jmpg.dev.quarkus.how.dto.ReservationResponseDTO;
 import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventCursor;
+import es.jmpg.dev.quarkus.how.service.EventJsonCache;
 import es.jmpg.dev.quarkus.how.service.EventService;
+import es.jmpg.dev.quarkus.how.service.IdempotencyStore;
+import es.jmpg.dev.quarkus.how.service.ReservationService;
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.core.Variant;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -16,48 +36,120 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.function.Supplier;
 
 /**
  * EventResource uses JAX-RS annotations (@Path, @GET, @POST, etc.) which are Jakarta EE standards.
  * Unlike Spring Web's @RestController/@RequestMapping, JAX-RS is portable across containers
  * and compiles to native code efficiently. OpenAPI annotations are also standardized via MicroProfile.
+ * This is the default blocking stack, running on worker threads; {@link VirtualThreadEventResource} runs it on
+ * virtual threads when built with {@code events.api.stack=virtual}.
  */
 @Path("/api/events")
+@IfBuildProperty(name = "events.api.stack", stringValue = "blocking", enableIfMissing = true)
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Event Management", description = "Operations for managing events")
+@AdmissionControlled
 public class EventResource {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Inject
     EventService eventService;
 
+    @Inject
+    ReservationService reservationService;
+
+    @Inject
+    EventJsonCache eventJsonCache;
+
+    @Inject
+    JacksonFormats jacksonFormats;
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @Context
+    UriInfo uriInfo;
+
+    @Context
+    Request request;
+
     @GET
-    @Operation(summary = "Get all events", description = "Retrieves a list of all events")
+    @Produces({MediaType.APPLICATION_JSON, JacksonFormats.APPLICATION_SMILE, JacksonFormats.APPLICATION_CBOR})
+    @BulkRead
+    @Operation(summary = "Get all events",
+            description = "Streams all events as an array, or returns a keyset page when limit or after is given. "
+                    + "JSON by default, Smile or CBOR on request. "
+                    + "Archived events are only listed, on their own, with archived=true")
     @APIResponse(
             responseCode = "200",
             description = "List of events retrieved successfully",
             content = @Content(schema = @Schema(implementation = EventResponseDTO.class))
     )
-    public Response getAllEvents() {
-        List<EventResponseDTO> events = eventService.getAllEvents();
-        return Response.ok(events).build();
+    @APIResponse(responseCode = "400", description = "Invalid page size, sort or cursor")
+    @APIResponse(responseCode = "304", description = "Collection unchanged since the ETag in If-None-Match")
+    public Response getAllEvents(
+            @Parameter(description = "Page size, enables paging")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Cursor returned as next by the previous page")
+            @QueryParam("after") String after,
+            @Parameter(description = "Keyset order for the first page: id or startDate")
+            @QueryParam("sort") @DefaultValue("id") String sort,
+            @Parameter(description = "Read archived events instead of current ones")
+            @QueryParam("archived") @DefaultValue("false") boolean archived,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return listEvents(null, limit, after, sort, archived, ifNoneMatch);
     }
 
     @GET
     @Path("/{id}")
-    @Operation(summary = "Get event by ID", description = "Retrieves a specific event by its ID")
+    @Operation(summary = "Get event by ID",
+            description = "Retrieves a specific event by its ID; an archived event is only found with archived=true")
     @APIResponse(
             responseCode = "200",
             description = "Event retrieved successfully",
             content = @Content(schema = @Schema(implementation = EventResponseDTO.class))
     )
+    @APIResponse(responseCode = "304", description = "Event unchanged since the ETag in If-None-Match")
     @APIResponse(responseCode = "404", description = "Event not found")
     public Response getEventById(
             @Parameter(description = "Event ID", required = true)
-            @PathParam("id") Long id) {
-        EventResponseDTO event = eventService.getEventById(id);
-        return Response.ok(event).build();
+            @PathParam("id") Long id,
+            @Parameter(description = "Read the archived event instead of a current one")
+            @QueryParam("archived") @DefaultValue("false") boolean archived,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            EntityTag current = EntityTags.of(eventService.getVersion(id, archived));
+            if (EntityTags.matches(ifNoneMatch, current)) {
+                return Response.notModified(current).build();
+            }
+        }
+        if (archived) {
+            // Archived events never change, and are read too rarely to be worth a place in the cache
+            EventResponseDTO event = eventService.getEventById(id, true);
+            return Response.ok(event).tag(EntityTags.of(event.version)).build();
+        }
+        EventJsonCache.CachedEvent event = eventJsonCache.get(id, () -> eventService.getEventById(id));
+        return Response.ok(event.json, MediaType.APPLICATION_JSON_TYPE).tag(EntityTags.of(event.version)).build();
+    }
+
+    @GET
+    @Path("/cache/stats")
+    @Operation(summary = "Get event cache statistics",
+            description = "Hit, miss and eviction counters of the single-event response cache")
+    @APIResponse(
+            responseCode = "200",
+            description = "Cache statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = CacheStatsDTO.class))
+    )
+    public Response getCacheStats() {
+        return Response.ok(eventJsonCache.stats()).build();
     }
 
     @POST
@@ -68,9 +160,17 @@ public class EventResource {
             content = @Content(schema = @Schema(implementation = EventResponseDTO.class))
     )
     @APIResponse(responseCode = "400", description = "Invalid input data")
-    public Response createEvent(@Valid EventDTO eventDTO) {
+    @APIResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
+    public Response createEvent(
+            @Parameter(description = "Key under which a retry of this request gets the original response")
+            @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey,
+            @Valid EventDTO eventDTO) {
+        if (idempotencyKey != null) {
+            return idempotent(idempotencyKey, null, eventDTO, Response.Status.CREATED,
+                    () -> eventService.createEvent(eventDTO));
+        }
         EventResponseDTO created = eventService.createEvent(eventDTO);
-        return Response.status(Response.Status.CREATED).entity(created).build();
+        return Response.status(Response.Status.CREATED).entity(created).tag(EntityTags.of(created.version)).build();
     }
 
     @PUT
@@ -83,12 +183,21 @@ public class EventResource {
     )
     @APIResponse(responseCode = "404", description = "Event not found")
     @APIResponse(responseCode = "400", description = "Invalid input data")
+    @APIResponse(responseCode = "412", description = "Event changed since the ETag in If-Match")
+    @APIResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
     public Response updateEvent(
             @Parameter(description = "Event ID", required = true)
             @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @Parameter(description = "Key under which a retry of this request gets the original response")
+            @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey,
             @Valid EventDTO eventDTO) {
-        EventResponseDTO updated = eventService.updateEvent(id, eventDTO);
-        return Response.ok(updated).build();
+        if (idempotencyKey != null) {
+            return idempotent(idempotencyKey, ifMatch, eventDTO, Response.Status.OK,
+                    () -> eventService.updateEvent(id, eventDTO, EntityTags.expectedVersion(ifMatch)));
+        }
+        EventResponseDTO updated = eventService.updateEvent(id, eventDTO, EntityTags.expectedVersion(ifMatch));
+        return Response.ok(updated).tag(EntityTags.of(updated.version)).build();
     }
 
     @DELETE
@@ -113,29 +222,173 @@ public class EventResource {
     )
     @APIResponse(responseCode = "404", description = "Event not found")
     @APIResponse(responseCode = "400", description = "Invalid status")
+    @APIResponse(responseCode = "412", description = "Event changed since the ETag in If-Match")
+    @APIResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
     public Response updateEventStatus(
             @Parameter(description = "Event ID", required = true)
             @PathParam("id") Long id,
             @Parameter(description = "New status", required = true)
-            @QueryParam("status") String status) {
+            @QueryParam("status") String status,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            @Parameter(description = "Key under which a retry of this request gets the original response")
+            @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
         Event.EventStatus eventStatus = Event.EventStatus.valueOf(status.toUpperCase());
-        EventResponseDTO updated = eventService.updateEventStatus(id, eventStatus);
-        return Response.ok(updated).build();
+        if (idempotencyKey != null) {
+            return idempotent(idempotencyKey, ifMatch, null, Response.Status.OK,
+                    () -> eventService.updateEventStatus(id, eventStatus, EntityTags.expectedVersion(ifMatch)));
+        }
+        EventResponseDTO updated = eventService.updateEventStatus(id, eventStatus, EntityTags.expectedVersion(ifMatch));
+        return Response.ok(updated).tag(EntityTags.of(updated.version)).build();
     }
 
     @GET
     @Path("/status/{status}")
-    @Operation(summary = "Get events by status", description = "Retrieves all events with a specific status")
+    @Produces({MediaType.APPLICATION_JSON, JacksonFormats.APPLICATION_SMILE, JacksonFormats.APPLICATION_CBOR})
+    @BulkRead
+    @Operation(summary = "Get events by status",
+            description = "Retrieves all events with a specific status, as JSON by default or Smile or CBOR on request; "
+                    + "archived events only with archived=true")
     @APIResponse(
             responseCode = "200",
             description = "Events retrieved successfully",
             content = @Content(schema = @Schema(implementation = EventResponseDTO.class))
     )
+    @APIResponse(responseCode = "304", description = "Collection unchanged since the ETag in If-None-Match")
+    @APIResponse(responseCode = "400", description = "Invalid page size, sort or cursor")
     public Response getEventsByStatus(
             @Parameter(description = "Event status", required = true)
-            @PathParam("status") String status) {
+            @PathParam("status") String status,
+            @Parameter(description = "Page size, enables paging")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Cursor returned as next by the previous page")
+            @QueryParam("after") String after,
+            @Parameter(description = "Keyset order for the first page: id or startDate")
+            @QueryParam("sort") @DefaultValue("id") String sort,
+            @Parameter(description = "Read archived events instead of current ones")
+            @QueryParam("archived") @DefaultValue("false") boolean archived,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         Event.EventStatus eventStatus = Event.EventStatus.valueOf(status.toUpperCase());
-        List<EventResponseDTO> events = eventService.getEventsByStatus(eventStatus);
-        return Response.ok(events).build();
+        return listEvents(eventStatus, limit, after, sort, archived, ifNoneMatch);
+    }
+
+    @POST
+    @Path("/{id}/reservations")
+    @Operation(summary = "Reserve seats", description = "Atomically reserves seats, never overselling the event")
+    @APIResponse(
+            responseCode = "201",
+            description = "Seats reserved successfully",
+            content = @Content(schema = @Schema(implementation = ReservationResponseDTO.class))
+    )
+    @APIResponse(responseCode = "404", description = "Event not found")
+    @APIResponse(responseCode = "409", description = "Not enough seats available")
+    public Response reserveSeats(
+            @Parameter(description = "Event ID", required = true)
+            @PathParam("id") Long id,
+            @Valid ReservationDTO reservationDTO) {
+        ReservationResponseDTO reserved = reservationService.reserve(id, reservationDTO.seats);
+        return Response.status(Response.Status.CREATED).entity(reserved).build();
+    }
+
+    @DELETE
+    @Path("/{id}/reservations")
+    @Operation(summary = "Cancel reserved seats", description = "Atomically releases previously reserved seats")
+    @APIResponse(
+            responseCode = "200",
+            description = "Seats released successfully",
+            content = @Content(schema = @Schema(implementation = ReservationResponseDTO.class))
+    )
+    @APIResponse(responseCode = "404", description = "Event not found")
+    @APIResponse(responseCode = "409", description = "More seats released than reserved")
+    public Response cancelReservation(
+            @Parameter(description = "Event ID", required = true)
+            @PathParam("id") Long id,
+            @Parameter(description = "Number of seats to release", required = true)
+            @QueryParam("seats") @DefaultValue("1") int seats) {
+        if (seats < 1) {
+            throw new BadRequestException("seats must be at least 1");
+        }
+        ReservationResponseDTO released = reservationService.cancel(id, seats);
+        return Response.ok(released).build();
+    }
+
+    /**
+     * Runs a write at most once per Idempotency-Key; a retry gets the stored status, body and ETag back, marked
+     * with {@code Idempotent-Replayed: true}.
+     */
+    private Response idempotent(String key, String ifMatch, EventDTO body, Response.Status status,
+            Supplier<EventResponseDTO> write) {
+        URI uri = uriInfo.getRequestUri();
+        String target = request.getMethod() + " " + uri.getRawPath() + "?" + uri.getRawQuery() + "\n" + ifMatch;
+        IdempotencyStore.StoredResponse stored = idempotencyStore.execute(key, target, body, status.getStatusCode(),
+                write);
+        Response.ResponseBuilder response = Response.status(stored.status)
+                .entity(stored.json)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .tag(EntityTags.of(stored.version));
+        if (stored.replayed) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.build();
+    }
+
+    private Response listEvents(Event.EventStatus status, Integer limit, String after, String sort, boolean archived,
+                                String ifNoneMatch) {
+        boolean paged = limit != null || after != null;
+        int pageSize = paged ? pageSize(limit) : 0;
+        EventCursor.SortKey sortKey = paged ? parseSortKey(sort) : null;
+
+        Variant variant = request.selectVariant(JacksonFormats.VARIANTS);
+        MediaType type = variant != null ? variant.getMediaType() : MediaType.APPLICATION_JSON_TYPE;
+        // The tag aggregates the whole collection, which a keyset page only pays for when it is asked to compare
+        EntityTag current = ifNoneMatch != null || !paged
+                ? EntityTags.of(eventService.getCollectionVersion(status, archived), type)
+                : null;
+        if (current != null && EntityTags.matches(ifNoneMatch, current)) {
+            return Response.notModified(current).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        if (!paged) {
+            return Response.ok(streamEvents(status, archived, type), type).tag(current)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        EventPageDTO page = eventService.getEventsPage(status, sortKey, after, pageSize, archived);
+        return Response.ok(page, type).tag(current).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+
+    private StreamingOutput streamEvents(Event.EventStatus status, boolean archived, MediaType type) {
+        ObjectMapper mapper = jacksonFormats.mapperFor(type);
+        ObjectWriter rowWriter = mapper.writerFor(EventResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return output -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                eventService.streamEvents(status, archived, event -> {
+                    try {
+                        rowWriter.writeValue(generator, event);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Validates a {@code limit} query parameter; a page without one is as large as allowed.
+     */
+    static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : EventService.MAX_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > EventService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + EventService.MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    private static EventCursor.SortKey parseSortKey(String sort) {
+        return switch (sort) {
+            case "id" -> EventCursor.SortKey.ID;
+            case "startDate" -> EventCursor.SortKey.START_DATE;
+            default -> throw new BadRequestException("sort must be id or startDate");
+        };
     }
 }
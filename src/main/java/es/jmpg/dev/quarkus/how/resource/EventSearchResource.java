@@ -0,0 +1,107 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.dto.EventPageDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Date-range search, always keyset-paged in end date order so every page is one bounded index range scan,
+ * and keyword search ranked by relevance.
+ */
+@Path("/api/events/search")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class EventSearchResource {
+
+    private static final int MAX_TEXT_RESULTS = 100;
+
+    @Inject
+    EventService eventService;
+
+    @GET
+    @Operation(summary = "Search events",
+            description = "Events overlapping the [from, to) range, optionally filtered by status and location, "
+                    + "ordered by end date")
+    @APIResponse(
+            responseCode = "200",
+            description = "Page of matching events",
+            content = @Content(schema = @Schema(implementation = EventPageDTO.class))
+    )
+    @APIResponse(responseCode = "400", description = "Invalid range, status, page size or cursor")
+    public EventPageDTO searchEvents(
+            @Parameter(description = "Only events ending after this instant (ISO-8601 local date-time)")
+            @QueryParam("from") String from,
+            @Parameter(description = "Only events starting before this instant (ISO-8601 local date-time)")
+            @QueryParam("to") String to,
+            @Parameter(description = "Event status")
+            @QueryParam("status") String status,
+            @Parameter(description = "Exact location")
+            @QueryParam("location") String location,
+            @Parameter(description = "Page size")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "Cursor returned as next by the previous page")
+            @QueryParam("after") String after) {
+        return eventService.searchEvents(
+                dateTime("from", from),
+                dateTime("to", to),
+                status != null ? eventStatus(status) : null,
+                location,
+                after,
+                EventResource.pageSize(limit));
+    }
+
+    @GET
+    @Path("/text")
+    @Operation(summary = "Search events by keyword",
+            description = "Events whose title, location or description contain words starting with every word of q, "
+                    + "best match first")
+    @APIResponse(
+            responseCode = "200",
+            description = "Matching events, best first",
+            content = @Content(schema = @Schema(implementation = EventResponseDTO.class))
+    )
+    @APIResponse(responseCode = "400", description = "Missing or too long query, or invalid limit")
+    public List<EventResponseDTO> searchText(
+            @Parameter(description = "Words to search for, each also matches longer words", required = true)
+            @QueryParam("q") String q,
+            @Parameter(description = "Maximum number of results")
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (limit < 1 || limit > MAX_TEXT_RESULTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TEXT_RESULTS);
+        }
+        return eventService.searchText(q, limit);
+    }
+
+    private static LocalDateTime dateTime(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(name + " must be an ISO-8601 local date-time");
+        }
+    }
+
+    private static Event.EventStatus eventStatus(String status) {
+        try {
+            return Event.EventStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown status " + status);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.dto.EventStatsDTO;
+import es.jmpg.dev.quarkus.how.service.EventStatistics;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/events/stats")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class EventStatsResource {
+
+    @Inject
+    EventStatistics eventStatistics;
+
+    @GET
+    @Operation(summary = "Get event statistics",
+            description = "Events per status, and capacity, seats sold and occupancy per location, "
+                    + "served from in-memory aggregates")
+    @APIResponse(
+            responseCode = "200",
+            description = "Event statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = EventStatsDTO.class))
+    )
+    public Response getStats() {
+        return Response.ok(eventStatistics.stats()).build();
+    }
+}
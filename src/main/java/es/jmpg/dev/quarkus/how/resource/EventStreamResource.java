@@ -0,0 +1,74 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.dto.EventMessage;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventChangeFeed;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Server-sent change feed, so dashboards get pushed the events they show instead of polling the collection.
+ * The stream holds no thread: it runs on the event loop with either API stack.
+ */
+@Path("/api/events/stream")
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class EventStreamResource {
+
+    @Inject
+    EventChangeFeed changeFeed;
+
+    @Context
+    Sse sse;
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Stream event changes",
+            description = "Server-sent events named after the change (CREATED, UPDATED, STATUS_CHANGED, SEATS_CHANGED, "
+                    + "DELETED, ARCHIVED) with the latest state of the event. Changes within a short window are merged per event; "
+                    + "a client that falls behind is disconnected and should reconnect and re-read")
+    @APIResponse(
+            responseCode = "200",
+            description = "Stream of changes",
+            content = @Content(schema = @Schema(implementation = EventMessage.class))
+    )
+    @APIResponse(responseCode = "400", description = "Invalid status")
+    @APIResponse(responseCode = "503", description = "Subscriber limit of this node reached")
+    public Multi<OutboundSseEvent> streamChanges(
+            @Parameter(description = "Only changes of these event ids, repeatable")
+            @QueryParam("id") List<Long> ids,
+            @Parameter(description = "Only events in this status after the change; deletions are always sent")
+            @QueryParam("status") String status) {
+        return changeFeed.subscribe(Set.copyOf(ids), status != null ? eventStatus(status) : null)
+                .map(item -> sse.newEventBuilder()
+                        .name(item.action)
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(item.json)
+                        .build());
+    }
+
+    private static Event.EventStatus eventStatus(String status) {
+        try {
+            return Event.EventStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown status " + status);
+        }
+    }
+}
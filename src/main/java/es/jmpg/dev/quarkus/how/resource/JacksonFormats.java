@@ -0,0 +1,68 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Variant;
+
+import java.util.List;
+
+/**
+ * The encodings a list of events can be negotiated into through the Accept header: JSON, and the binary Jackson
+ * formats Smile and CBOR for service-to-service consumers.
+ * The binary mappers copy the configuration of the application's ObjectMapper but write dates as numeric arrays
+ * instead of ISO-8601 strings, which is where most of the parsing time of a JSON list goes; Smile also refers back
+ * to repeated short strings such as locations and statuses instead of writing them again.
+ */
+@Singleton
+public class JacksonFormats {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+    static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+    static final List<Variant> VARIANTS = Variant.mediaTypes(
+            MediaType.APPLICATION_JSON_TYPE, APPLICATION_SMILE_TYPE, APPLICATION_CBOR_TYPE).build();
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private ObjectMapper smileMapper;
+    private ObjectMapper cborMapper;
+
+    @PostConstruct
+    void init() {
+        smileMapper = smile(objectMapper);
+        cborMapper = cbor(objectMapper);
+    }
+
+    public static ObjectMapper smile(ObjectMapper json) {
+        return json.copyWith(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public static ObjectMapper cbor(ObjectMapper json) {
+        return json.copyWith(new CBORFactory()).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Returns the mapper writing {@code type}, JSON for anything that is neither Smile nor CBOR.
+     */
+    public ObjectMapper mapperFor(MediaType type) {
+        if (type.isCompatible(APPLICATION_SMILE_TYPE)) {
+            return smileMapper;
+        }
+        if (type.isCompatible(APPLICATION_CBOR_TYPE)) {
+            return cborMapper;
+        }
+        return objectMapper;
+    }
+}
@@ -0,0 +1,37 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.dto.OutboxStatsDTO;
+import es.jmpg.dev.quarkus.how.kafka.OutboxRelay;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/events/outbox")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Event Management", description = "Operations for managing events")
+public class OutboxResource {
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @GET
+    @Path("/stats")
+    @Operation(summary = "Get outbox relay statistics",
+            description = "Pending change messages, publication lag and relay throughput counters")
+    @APIResponse(
+            responseCode = "200",
+            description = "Outbox statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = OutboxStatsDTO.class))
+    )
+    public Response getOutboxStats() {
+        return Response.ok(outboxRelay.stats()).build();
+    }
+}
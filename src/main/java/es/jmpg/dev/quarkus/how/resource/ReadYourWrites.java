@@ -0,0 +1,73 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import es.jmpg.dev.quarkus.how.service.ReadConsistency;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.time.Duration;
+
+/**
+ * Lets GET requests read from the replica, except for clients that wrote shortly before.
+ * A successful write sets a cookie holding the time until which that client's reads stay on the primary,
+ * {@code events.read-replica.read-your-writes} after the write, which is meant to exceed the replication lag.
+ * The cookie carries the state, so it works whichever node serves the next request.
+ */
+public class ReadYourWrites {
+
+    static final String PRIMARY_UNTIL = "events-primary-until";
+
+    @Inject
+    ReadConsistency consistency;
+
+    @ConfigProperty(name = "events.read-replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "events.read-replica.read-your-writes", defaultValue = "PT5S")
+    Duration window;
+
+    @ServerRequestFilter
+    public void route(ContainerRequestContext request) {
+        if (!enabled || !isRead(request.getMethod())) {
+            return;
+        }
+        Cookie primaryUntil = request.getCookies().get(PRIMARY_UNTIL);
+        if (primaryUntil == null || expired(primaryUntil.getValue())) {
+            consistency.allowReplica();
+        }
+    }
+
+    @ServerResponseFilter
+    public void pin(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled || isRead(request.getMethod()) || response.getStatus() >= 400) {
+            return;
+        }
+        NewCookie cookie = new NewCookie.Builder(PRIMARY_UNTIL)
+                .value(Long.toString(System.currentTimeMillis() + window.toMillis()))
+                .path("/")
+                .maxAge((int) Math.max(1, window.toSeconds() + 1))
+                .httpOnly(true)
+                .sameSite(NewCookie.SameSite.LAX)
+                .build();
+        response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+
+    private static boolean expired(String until) {
+        try {
+            return Long.parseLong(until) <= System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package es.jmpg.dev.quarkus.how.resource;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * {@link EventResource} with every request on its own virtual thread instead of a worker thread.
+ * A request waiting on the database parks its virtual thread and frees the carrier, so concurrency is no longer
+ * capped by the worker pool; it is capped by the connection pool instead, where requests wait for a connection.
+ * Enabled by building with {@code events.api.stack=virtual}.
+ */
+@Path("/api/events")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Event Management", description = "Operations for managing events")
+@IfBuildProperty(name = "events.api.stack", stringValue = "virtual")
+@RunOnVirtualThread
+public class VirtualThreadEventResource extends EventResource {
+}
@@ -0,0 +1,313 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.BulkItemResultDTO;
+import es.jmpg.dev.quarkus.how.dto.BulkItemResultDTO.Status;
+import es.jmpg.dev.quarkus.how.dto.BulkResultDTO;
+import es.jmpg.dev.quarkus.how.dto.EventBulkUpdateDTO;
+import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates or updates many events per request. Items are validated in parallel before any database work,
+ * then written in chunks: every chunk is one flush, which Hibernate sends as JDBC batches of
+ * {@code statement-batch-size} statements, and new ids come from the pooled {@code events_SEQ} block of 50
+ * instead of one sequence call per row. The persistence context is cleared after each chunk so memory stays
+ * bounded by the chunk size, not by the request size.
+ * With {@link FailureMode#ALL_OR_NOTHING} the whole request is one transaction that any failing item rolls
+ * back; with {@link FailureMode#PER_CHUNK} each chunk commits on its own and failures stay local to their item
+ * or chunk.
+ */
+@ApplicationScoped
+public class BulkEventService {
+
+    public enum FailureMode {
+        ALL_OR_NOTHING,
+        PER_CHUNK;
+
+        public static FailureMode parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown bulk mode: " + value);
+            }
+        }
+    }
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    SeatInventory seatInventory;
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    @ConfigProperty(name = "events.bulk.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "events.bulk.failure-mode", defaultValue = "per-chunk")
+    String defaultFailureMode;
+
+    public FailureMode failureMode(String requested) {
+        return FailureMode.parse(requested != null ? requested : defaultFailureMode);
+    }
+
+    @DbTimed
+    public BulkResultDTO createEvents(List<EventDTO> items, FailureMode mode) {
+        return run(items, mode, this::createChunk);
+    }
+
+    @DbTimed
+    public BulkResultDTO updateEvents(List<EventBulkUpdateDTO> items, FailureMode mode) {
+        return run(items, mode, this::updateChunk);
+    }
+
+    private <T extends EventDTO> BulkResultDTO run(List<T> items, FailureMode mode, ChunkWriter<T> writer) {
+        BulkItemResultDTO[] results = validateAll(items);
+        boolean anyInvalid = Arrays.stream(results).anyMatch(result -> result != null);
+        if (anyInvalid && mode == FailureMode.ALL_OR_NOTHING) {
+            skipPending(results);
+            return new BulkResultDTO(Arrays.asList(results));
+        }
+
+        List<List<Integer>> chunks = chunks(results);
+        if (mode == FailureMode.ALL_OR_NOTHING) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    for (List<Integer> chunk : chunks) {
+                        if (!writer.write(items, chunk, results, true)) {
+                            throw new BulkAborted();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                rollBack(results, e);
+            }
+        } else {
+            for (List<Integer> chunk : chunks) {
+                try {
+                    QuarkusTransaction.requiringNew().run(() -> writer.write(items, chunk, results, false));
+                } catch (RuntimeException e) {
+                    for (int index : chunk) {
+                        if (results[index] == null || isWritten(results[index])) {
+                            results[index] = failed(index, e);
+                        }
+                    }
+                }
+            }
+        }
+        return new BulkResultDTO(Arrays.asList(results));
+    }
+
+    /**
+     * Persists one chunk of new events. Ids are assigned on {@code persist()}, so change notifications can be
+     * fired before the flush; ordered inserts keep the interleaved outbox rows from splitting the event batches.
+     */
+    private boolean createChunk(List<EventDTO> items, List<Integer> chunk, BulkItemResultDTO[] results, boolean atomic) {
+        for (int index : chunk) {
+            Event event = items.get(index).toEntity();
+            event.persist();
+            changes.fire(new EventChange(event.id, EventChange.Action.CREATED, EventResponseDTO.fromEntity(event)));
+            results[index] = new BulkItemResultDTO(index, Status.CREATED, event.id, null);
+        }
+        flushAndClear();
+        return true;
+    }
+
+    /**
+     * Locks and loads the chunk's events with one query, then applies the changes and lets a single flush write
+     * them. Capacity changes go through {@link SeatInventory#resize} first, while nothing is dirty yet, so the
+     * conditional UPDATEs do not force early flushes that would break up the batch; the resized event is
+     * refreshed at once, so a later item for the same id resizes from the new capacity. Only events that are
+     * written get a new version.
+     */
+    private boolean updateChunk(List<EventBulkUpdateDTO> items, List<Integer> chunk, BulkItemResultDTO[] results,
+                                boolean atomic) {
+        List<Long> ids = chunk.stream().map(index -> items.get(index).id).distinct().toList();
+        EntityManager em = Event.getEntityManager();
+        Map<Long, Event> events = Event.<Event>find("id in ?1", ids)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .list().stream()
+                .collect(Collectors.toMap(event -> event.id, Function.identity()));
+
+        List<Integer> writable = new ArrayList<>(chunk.size());
+        Set<Long> resized = new HashSet<>();
+        for (int index : chunk) {
+            EventBulkUpdateDTO item = items.get(index);
+            Event event = events.get(item.id);
+            if (event == null) {
+                results[index] = new BulkItemResultDTO(index, Status.NOT_FOUND, item.id,
+                        List.of("Event with id " + item.id + " not found"));
+            } else if (!item.capacity.equals(event.capacity)
+                    && !seatInventory.resize(item.id, item.capacity - event.capacity)) {
+                results[index] = new BulkItemResultDTO(index, Status.CONFLICT, item.id,
+                        List.of("Capacity cannot be lower than the seats already reserved"));
+            } else {
+                if (!item.capacity.equals(event.capacity)) {
+                    // resize bumped the version along with the seats
+                    em.refresh(event);
+                    resized.add(event.id);
+                }
+                writable.add(index);
+                continue;
+            }
+            if (atomic) {
+                return false;
+            }
+        }
+
+        Set<Long> bumped = new HashSet<>(resized);
+        for (int index : writable) {
+            EventBulkUpdateDTO item = items.get(index);
+            Event event = events.get(item.id);
+            event.title = item.title;
+            event.description = item.description;
+            event.location = item.location;
+            event.startDate = item.startDate;
+            event.endDate = item.endDate;
+            // The row lock keeps reservations from bumping it in between
+            if (bumped.add(item.id)) {
+                event.version++;
+            }
+        }
+        em.flush();
+
+        for (int index : writable) {
+            Long id = items.get(index).id;
+            changes.fire(new EventChange(id, EventChange.Action.UPDATED, EventResponseDTO.fromEntity(events.get(id))));
+            results[index] = new BulkItemResultDTO(index, Status.UPDATED, id, null);
+        }
+        flushAndClear();
+        return true;
+    }
+
+    /**
+     * Runs bean validation for every item on the common fork-join pool.
+     * Returns an array holding an {@code INVALID} result at each rejected position and null elsewhere.
+     */
+    private BulkItemResultDTO[] validateAll(List<? extends EventDTO> items) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        IntStream.range(0, items.size()).parallel().forEach(index -> {
+            List<String> errors = validate(items.get(index));
+            if (!errors.isEmpty()) {
+                results[index] = new BulkItemResultDTO(index, Status.INVALID, idOf(items.get(index)), errors);
+            }
+        });
+        return results;
+    }
+
+    private List<String> validate(EventDTO item) {
+        if (item == null) {
+            return List.of("Item must be an event object");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<EventDTO> violation : validator.validate(item)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (item.startDate != null && item.endDate != null && item.endDate.isBefore(item.startDate)) {
+            errors.add("End date must be after start date");
+        }
+        return errors;
+    }
+
+    private List<List<Integer>> chunks(BulkItemResultDTO[] results) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> current = new ArrayList<>(chunkSize);
+        for (int index = 0; index < results.length; index++) {
+            if (results[index] != null) {
+                continue;
+            }
+            current.add(index);
+            if (current.size() == chunkSize) {
+                chunks.add(current);
+                current = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Marks every item the rolled-back transaction had written as skipped. When the rollback was not caused by
+     * an item result (a database error), the items that had no outcome yet are reported as failed.
+     */
+    private void rollBack(BulkItemResultDTO[] results, RuntimeException cause) {
+        boolean databaseError = !(cause instanceof BulkAborted);
+        for (int index = 0; index < results.length; index++) {
+            BulkItemResultDTO result = results[index];
+            if (result == null && databaseError) {
+                results[index] = failed(index, cause);
+            } else if (result == null || isWritten(result)) {
+                results[index] = new BulkItemResultDTO(index, Status.SKIPPED, null, null);
+            }
+        }
+    }
+
+    private void skipPending(BulkItemResultDTO[] results) {
+        for (int index = 0; index < results.length; index++) {
+            if (results[index] == null) {
+                results[index] = new BulkItemResultDTO(index, Status.SKIPPED, null, null);
+            }
+        }
+    }
+
+    private static boolean isWritten(BulkItemResultDTO result) {
+        return result.status == Status.CREATED || result.status == Status.UPDATED;
+    }
+
+    private BulkItemResultDTO failed(int index, RuntimeException cause) {
+        Throwable root = cause;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return new BulkItemResultDTO(index, Status.FAILED, null, List.of(String.valueOf(root.getMessage())));
+    }
+
+    private static Long idOf(EventDTO item) {
+        return item instanceof EventBulkUpdateDTO update ? update.id : null;
+    }
+
+    private static void flushAndClear() {
+        EntityManager em = Event.getEntityManager();
+        em.flush();
+        em.clear();
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        /**
+         * Writes the chunk and records an outcome for each of its items.
+         * Returns {@code false} when {@code atomic} is set and an item could not be written.
+         */
+        boolean write(List<T> items, List<Integer> chunk, BulkItemResultDTO[] results, boolean atomic);
+    }
+
+    private static final class BulkAborted extends RuntimeException {
+        BulkAborted() {
+            super(null, null, false, false);
+        }
+    }
+}
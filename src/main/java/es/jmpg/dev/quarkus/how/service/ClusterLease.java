@@ -0,0 +1,40 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.entity.SchedulerLease;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Leases on the {@code scheduler_leases} rows, so a job runs on one node of the cluster at a time.
+ * A node takes a lease that is free or expired, or renews its own, with one conditional UPDATE; the row lock makes
+ * concurrent attempts serialize and only one can match. A node that dies loses the lease when it expires.
+ * Expiry is compared with the clock of the node asking, so clock skew between nodes must stay well below the
+ * lease duration.
+ */
+@ApplicationScoped
+public class ClusterLease {
+
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * Takes or renews the lease and returns whether this node holds it until now + duration.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        return SchedulerLease.update("owner = ?1, expiresAt = ?2 where name = ?3 and (owner = ?1 or expiresAt < ?4)",
+                owner, now.plus(duration), name, now) == 1;
+    }
+
+    /**
+     * Hands the lease over right away instead of letting the other nodes wait for it to expire.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void release(String name) {
+        SchedulerLease.update("expiresAt = ?1 where name = ?2 and owner = ?3", LocalDateTime.now(), name, owner);
+    }
+}
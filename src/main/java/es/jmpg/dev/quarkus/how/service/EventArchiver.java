@@ -0,0 +1,298 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the live {@code events} table down to current events.
+ * COMPLETED and CANCELLED events that ended more than {@code events.archive.after} ago are moved to
+ * {@code events_archive} in batches: one indexed range query for a batch of ids, locked, then one INSERT ... SELECT
+ * and one DELETE for the whole batch. Every moved event fires an ARCHIVED {@link EventChange}, so caches, indexes,
+ * statistics and the outbox drop it as they would a deleted one.
+ * On PostgreSQL, where {@code events} is range-partitioned by {@code startDate}, the job also creates the monthly
+ * partitions up to {@code events.partitions.months-ahead} months ahead, moving any rows of the new range out of
+ * {@code events_default} first, so new events land in their own month, and drops the partitions of months before the
+ * archive cutoff once archiving has emptied them. A lookup by id alone cannot be pruned and probes every partition,
+ * so the number of partitions stays bounded by the months that still hold live events.
+ * The job runs on the node holding the {@code event-archive} lease, renewed before every batch.
+ */
+@ApplicationScoped
+public class EventArchiver {
+
+    static final String LEASE = "event-archive";
+
+    private static final List<Event.EventStatus> TERMINAL = List.of(Event.EventStatus.COMPLETED,
+            Event.EventStatus.CANCELLED);
+
+    private static final String ARCHIVE = "insert into ArchivedEvent (id, title, description, location, startDate, "
+            + "endDate, capacity, availableSeats, status, createdAt, updatedAt, version, archivedAt) "
+            + "select e.id, e.title, e.description, e.location, e.startDate, e.endDate, e.capacity, "
+            + "e.availableSeats, e.status, e.createdAt, e.updatedAt, e.version, :archivedAt "
+            + "from Event e where e.id in :ids";
+
+    // Every stored column; search_vector is generated by each partition
+    private static final String COLUMNS = "id, title, description, location, \"startDate\", \"endDate\", capacity, "
+            + "\"availableSeats\", status, \"createdAt\", \"updatedAt\", version, \"sourceTimestamp\", \"heldSeats\"";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'events_p'yyyy_MM");
+
+    @ConfigProperty(name = "events.archive.after", defaultValue = "P30D")
+    Duration archiveAfter;
+
+    @ConfigProperty(name = "events.archive.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "events.archive.lease-duration", defaultValue = "PT1M")
+    Duration leaseDuration;
+
+    @ConfigProperty(name = "events.partitions.enabled", defaultValue = "false")
+    boolean partitionsEnabled;
+
+    @ConfigProperty(name = "events.partitions.months-ahead", defaultValue = "3")
+    int monthsAhead;
+
+    @Inject
+    ClusterLease lease;
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Counter archived;
+    private Counter partitionsCreated;
+    private Counter partitionsDropped;
+    private volatile boolean leader;
+
+    @PostConstruct
+    void registerMetrics() {
+        archived = Counter.builder("events.archive.archived")
+                .description("Events moved to events_archive")
+                .register(registry);
+        partitionsCreated = Counter.builder("events.archive.partitions.created")
+                .description("Monthly partitions of events created ahead of time")
+                .register(registry);
+        partitionsDropped = Counter.builder("events.archive.partitions.dropped")
+                .description("Monthly partitions of events dropped once archiving emptied them")
+                .register(registry);
+        Gauge.builder("events.archive.leader", this, archiver -> archiver.leader ? 1 : 0)
+                .description("1 while this node holds the archive lease")
+                .register(registry);
+    }
+
+    @Scheduled(every = "${events.archive.interval:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP,
+            skipExecutionIf = Scheduled.ApplicationNotRunning.class)
+    void tick() {
+        try {
+            archive(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Archive run failed, it will be retried on the next tick");
+        }
+    }
+
+    /**
+     * Creates the partitions due at {@code now}, archives every event due by then and returns the number of events
+     * archived, or -1 when another node holds the lease.
+     */
+    public int archive(LocalDateTime now) {
+        leader = lease.tryAcquire(LEASE, leaseDuration);
+        if (!leader) {
+            return -1;
+        }
+        if (partitionsEnabled) {
+            YearMonth current = YearMonth.from(now);
+            for (int month = 0; month <= monthsAhead; month++) {
+                if (createPartition(current.plusMonths(month))) {
+                    partitionsCreated.increment();
+                }
+            }
+        }
+
+        LocalDateTime cutoff = now.minus(archiveAfter);
+        int moved = 0;
+        int batch;
+        do {
+            leader = lease.tryAcquire(LEASE, leaseDuration);
+            if (!leader) {
+                break;
+            }
+            batch = archiveBatch(cutoff);
+            moved += batch;
+        } while (batch == batchSize);
+        if (moved > 0) {
+            Log.debugf("Archive run moved %d events", moved);
+        }
+        if (partitionsEnabled && leader) {
+            YearMonth before = YearMonth.from(cutoff);
+            for (String partition : partitions()) {
+                YearMonth month = YearMonth.parse(partition, PARTITION_NAME);
+                if (month.isBefore(before) && dropPartition(partition)) {
+                    partitionsDropped.increment();
+                }
+            }
+        }
+        return moved;
+    }
+
+    @DbTimed
+    @Transactional
+    int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = Event.getEntityManager()
+                .createQuery("select e.id from Event e where e.status in :terminal and e.endDate < :cutoff", Long.class)
+                .setParameter("terminal", TERMINAL)
+                .setParameter("cutoff", cutoff)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<EventResponseDTO> events = Event.getEntityManager()
+                .createQuery(EventService.RESPONSE_PROJECTION + " where e.id in :ids", EventResponseDTO.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getResultList();
+        Event.getEntityManager()
+                .createQuery(ARCHIVE)
+                .setParameter("archivedAt", LocalDateTime.now())
+                .setParameter("ids", ids)
+                .executeUpdate();
+        Event.delete("id in ?1", ids);
+
+        for (EventResponseDTO event : events) {
+            changes.fire(new EventChange(event.id, EventChange.Action.ARCHIVED, event));
+        }
+        archived.increment(ids.size());
+        return ids.size();
+    }
+
+    /**
+     * Creates the partition of {@code month} unless it exists. Rows of that month already in {@code events_default}
+     * are moved into the new table before it is attached, since a range cannot be attached while the default
+     * partition holds rows in it. The whole move is one transaction, so readers see the rows in one place or the
+     * other.
+     */
+    @DbTimed
+    @Transactional
+    boolean createPartition(YearMonth month) {
+        String name = PARTITION_NAME.format(month);
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        Session session = Event.getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement exists = connection.prepareStatement("SELECT to_regclass(?)")) {
+                exists.setString(1, name);
+                try (ResultSet row = exists.executeQuery()) {
+                    if (row.next() && row.getString(1) != null) {
+                        return false;
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + name
+                        + " (LIKE events INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)");
+                int moved = statement.executeUpdate("WITH moved AS (DELETE FROM events_default WHERE \"startDate\" >= "
+                        + from + " AND \"startDate\" < " + to + " RETURNING " + COLUMNS + ") "
+                        + "INSERT INTO " + name + " (" + COLUMNS + ") SELECT * FROM moved");
+                // Deleting the rows from events_default released their ids, and the new table has no triggers yet
+                statement.executeUpdate("INSERT INTO event_ids (id) SELECT id FROM " + name);
+                statement.execute("ALTER TABLE events ATTACH PARTITION " + name
+                        + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+                Log.infof("Created partition %s, moving %d events out of events_default", name, moved);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Names of the monthly partitions of {@code events}.
+     */
+    @Transactional
+    List<String> partitions() {
+        Session session = Event.getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            List<String> names = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT c.relname FROM pg_inherits i "
+                         + "JOIN pg_class c ON c.oid = i.inhrelid "
+                         + "WHERE i.inhparent = 'events'::regclass AND c.relname LIKE 'events\\_p%' ORDER BY 1")) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+            return names;
+        });
+    }
+
+    /**
+     * Detaches and drops {@code name} if it is empty. It is checked again once detached, since an event may have been
+     * inserted into it in between; the transaction then rolls back and the partition stays.
+     */
+    @DbTimed
+    @Transactional
+    boolean dropPartition(String name) {
+        Session session = Event.getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!isEmpty(statement, name)) {
+                    return false;
+                }
+                statement.execute("ALTER TABLE events DETACH PARTITION " + name);
+                if (!isEmpty(statement, name)) {
+                    throw new IllegalStateException("Partition " + name + " received events while being dropped");
+                }
+                statement.execute("DROP TABLE " + name);
+                Log.infof("Dropped empty partition %s", name);
+            }
+            return true;
+        });
+    }
+
+    private static boolean isEmpty(Statement statement, String table) throws SQLException {
+        try (ResultSet row = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+            row.next();
+            return !row.getBoolean(1);
+        }
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        if (leader) {
+            try {
+                lease.release(LEASE);
+            } catch (RuntimeException e) {
+                Log.debugf(e, "Could not release the archive lease, it will expire");
+            }
+        }
+    }
+}
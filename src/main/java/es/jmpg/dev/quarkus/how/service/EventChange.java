@@ -0,0 +1,58 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+
+/**
+ * CDI event fired by every write path that changes an event.
+ * Observers that keep derived state (caches, feeds, aggregates) subscribe with
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)} so they only react to committed data.
+ */
+public class EventChange {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        SEATS_CHANGED,
+        DELETED,
+        /**
+         * Moved to {@code events_archive}; like a deletion, the event is gone from the live table.
+         */
+        ARCHIVED
+    }
+
+    public final Long eventId;
+    public final Action action;
+
+    /**
+     * State after the change, {@code null} for deletions and for seat changes made without loading the row.
+     */
+    public final EventResponseDTO event;
+
+    /**
+     * Seats taken from {@code availableSeats} by a SEATS_CHANGED change, negative when seats were given back.
+     */
+    public final int seatsTaken;
+
+    public EventChange(Long eventId, Action action, EventResponseDTO event) {
+        this(eventId, action, event, 0);
+    }
+
+    private EventChange(Long eventId, Action action, EventResponseDTO event, int seatsTaken) {
+        this.eventId = eventId;
+        this.action = action;
+        this.event = event;
+        this.seatsTaken = seatsTaken;
+    }
+
+    /**
+     * Whether the event left the {@code events} table, by deletion or archival.
+     */
+    public boolean removesEvent() {
+        return action == Action.DELETED || action == Action.ARCHIVED;
+    }
+
+    public static EventChange seatsTaken(Long eventId, int seats) {
+        return new EventChange(eventId, Action.SEATS_CHANGED, null, seats);
+    }
+}
@@ -0,0 +1,221 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.jmpg.dev.quarkus.how.dto.EventMessage;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local feed of committed event changes for streaming subscribers.
+ * Changes are collected per event id and published once per coalescing window, so a burst of writes to one event
+ * costs subscribers a single message with its latest state. Seat changes carry no state; the events they touched
+ * are read back with one query per window, however many subscribers there are. Each message is serialized once
+ * and shared by all subscribers.
+ * Every subscriber has a bounded buffer; one that cannot keep up overflows it and is disconnected instead of
+ * holding memory, and is expected to reconnect and re-read the events it shows.
+ */
+@ApplicationScoped
+public class EventChangeFeed {
+
+    @ConfigProperty(name = "events.stream.coalesce-window", defaultValue = "PT0.25S")
+    Duration coalesceWindow;
+
+    @ConfigProperty(name = "events.stream.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @ConfigProperty(name = "events.stream.max-subscribers", defaultValue = "20000")
+    int maxSubscribers;
+
+    @Inject
+    EventService eventService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final BroadcastProcessor<Item> processor = BroadcastProcessor.create();
+    private final Map<Long, EventChange> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private ScheduledExecutorService flusher;
+
+    /**
+     * One published change, with the filter attributes next to the JSON every subscriber receives.
+     */
+    public static final class Item {
+
+        public final Long eventId;
+        public final String action;
+        public final String status;
+        public final String json;
+
+        Item(Long eventId, String action, String status, String json) {
+            this.eventId = eventId;
+            this.action = action;
+            this.status = status;
+            this.json = json;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("events.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open change stream subscriptions")
+                .register(registry);
+        FunctionCounter.builder("events.stream.published", published, AtomicLong::get)
+                .description("Change messages published to the stream, before fan-out")
+                .register(registry);
+        FunctionCounter.builder("events.stream.coalesced", coalesced, AtomicLong::get)
+                .description("Changes folded into a later change of the same event within the window")
+                .register(registry);
+        FunctionCounter.builder("events.stream.disconnected", disconnected, AtomicLong::get)
+                .description("Subscribers disconnected because their buffer overflowed")
+                .register(registry);
+
+        long period = coalesceWindow.toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("event-feed").factory());
+        flusher.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    void shutdown(@Observes ShutdownEvent event) {
+        flusher.shutdown();
+        processor.onComplete();
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventChange change) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        pending.merge(change.eventId, change, this::latest);
+    }
+
+    /**
+     * Changes of the given events, or of events in the given status after the change; {@code null} or empty
+     * matches everything. Deletions carry no status and reach every subscriber of the event.
+     */
+    public Multi<Item> subscribe(Set<Long> eventIds, Event.EventStatus status) {
+        if (subscribers.get() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many change stream subscribers");
+        }
+        return processor
+                .filter(item -> eventIds == null || eventIds.isEmpty() || eventIds.contains(item.eventId))
+                .filter(item -> status == null || item.status == null || status.name().equals(item.status))
+                .onOverflow().buffer(bufferSize)
+                .onFailure(BackPressureFailure.class).invoke(disconnected::incrementAndGet)
+                .onFailure(BackPressureFailure.class).recoverWithCompletion()
+                .onSubscription().invoke(subscribers::incrementAndGet)
+                .onTermination().invoke(subscribers::decrementAndGet);
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    @ActivateRequestContext
+    void flush() {
+        try {
+            publish(drain());
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Publishing event changes to the stream failed");
+        }
+    }
+
+    private List<EventChange> drain() {
+        List<EventChange> changes = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            EventChange change = pending.remove(id);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    private void publish(List<EventChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Long> stale = new ArrayList<>();
+        for (EventChange change : changes) {
+            if (change.event == null && !change.removesEvent()) {
+                stale.add(change.eventId);
+            }
+        }
+        Map<Long, EventResponseDTO> reloaded = new HashMap<>();
+        if (!stale.isEmpty()) {
+            for (EventResponseDTO event : eventService.getEventsByIds(stale)) {
+                reloaded.put(event.id, event);
+            }
+        }
+
+        for (EventChange change : changes) {
+            EventResponseDTO event = change.event != null ? change.event : reloaded.get(change.eventId);
+            if (event == null && !change.removesEvent()) {
+                // Deleted or archived since; that change follows in a later window
+                continue;
+            }
+            String action = change.action.name();
+            processor.onNext(new Item(change.eventId, action, event != null ? event.status : null,
+                    serialize(EventMessage.of(change.eventId, event, action))));
+            published.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps the newer state of two changes to the same event. Observers of different transactions can run in
+     * either order, so versions decide; a change without state means the row has to be read back.
+     */
+    private EventChange latest(EventChange previous, EventChange next) {
+        coalesced.incrementAndGet();
+        if (previous.removesEvent() || next.removesEvent()) {
+            return previous.removesEvent() ? previous : next;
+        }
+        if (previous.event == null || next.event == null) {
+            return new EventChange(next.eventId, next.action, null);
+        }
+        return next.event.version >= previous.event.version ? next : previous;
+    }
+
+    private String serialize(EventMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing at the last row of a page.
+ * The token carries its own sort key, so a client only has to echo {@code next} back as {@code after}
+ * and the following page is resolved with an index range scan instead of an OFFSET.
+ */
+public final class EventCursor {
+
+    public enum SortKey {
+        ID("i", "e.id"),
+        START_DATE("s", "e.startDate"),
+        END_DATE("e", "e.endDate");
+
+        final String token;
+        final String column;
+
+        SortKey(String token, String column) {
+            this.token = token;
+            this.column = column;
+        }
+    }
+
+    public final SortKey sort;
+    public final LocalDateTime date;
+    public final long id;
+
+    private EventCursor(SortKey sort, LocalDateTime date, long id) {
+        this.sort = sort;
+        this.date = date;
+        this.id = id;
+    }
+
+    public static EventCursor afterId(long id) {
+        return new EventCursor(SortKey.ID, null, id);
+    }
+
+    public static EventCursor afterDate(SortKey sort, LocalDateTime date, long id) {
+        return new EventCursor(sort, date, id);
+    }
+
+    public String encode() {
+        String raw = sort == SortKey.ID
+                ? sort.token + "|" + id
+                : sort.token + "|" + date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == 2 && SortKey.ID.token.equals(parts[0])) {
+                return afterId(Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3) {
+                for (SortKey sort : SortKey.values()) {
+                    if (sort != SortKey.ID && sort.token.equals(parts[0])) {
+                        return afterDate(sort, LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through to the common error below
+        }
+        throw new BadRequestException("Invalid pagination cursor");
+    }
+}
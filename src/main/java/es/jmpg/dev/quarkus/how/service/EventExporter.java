@@ -0,0 +1,228 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes events straight from a forward-only JDBC cursor to an output stream, as NDJSON or CSV, so an export of the
+ * whole table needs the same memory as an export of one row: no entities, no DTOs, one buffer per export.
+ * The cursor only streams inside a transaction, where PostgreSQL honours the fetch size instead of sending the whole
+ * result at once. Rows come in id order, so an interrupted export resumes with {@code after} set to the last id
+ * received. The date range bounds {@code startDate}, the partition key, so it only reads the months it covers.
+ */
+@ApplicationScoped
+public class EventExporter {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String[] COLUMNS = {"id", "title", "description", "location", "startDate", "endDate",
+            "capacity", "availableSeats", "status", "createdAt", "updatedAt", "version"};
+
+    // COLUMNS quoted, PostgreSQL folds bare names to lowercase
+    private static final String SELECT = Arrays.stream(COLUMNS).map(column -> '"' + column + '"')
+            .collect(Collectors.joining(", ", "SELECT ", " FROM events WHERE id > ?"));
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @ConfigProperty(name = "events.export.fetch-size", defaultValue = "5000")
+    int fetchSize;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Exports the events with an id above {@code after} that match the non-null filters; {@code from} is inclusive
+     * and {@code to} exclusive. Closes {@code output} when done.
+     */
+    @Transactional
+    @TransactionConfiguration(timeout = 3600, timeoutFromConfigProperty = "events.export.transaction-timeout")
+    public void export(Format format, Event.EventStatus status, LocalDateTime from, LocalDateTime to, Long after,
+                       OutputStream output) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        params.add(after != null ? after : 0L);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND \"startDate\" >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND \"startDate\" < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+
+        Session session = Event.getEntityManager().unwrap(Session.class);
+        long exported = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rows = statement.executeQuery();
+                     RowWriter writer = format == Format.CSV
+                             ? new CsvWriter(new BufferedOutputStream(output, BUFFER_SIZE))
+                             : new NdjsonWriter(mapper, new BufferedOutputStream(output, BUFFER_SIZE))) {
+                    long count = 0;
+                    while (rows.next()) {
+                        writer.write(rows);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        Counter.builder("events.export.rows")
+                .description("Event rows written by exports")
+                .tag("format", format.name().toLowerCase())
+                .register(registry)
+                .increment(exported);
+    }
+
+    private static String dateTime(ResultSet rows, int column) throws SQLException {
+        Timestamp value = rows.getTimestamp(column);
+        return value != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.toLocalDateTime()) : null;
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void write(ResultSet rows) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * One JSON object per line with the fields of {@code EventResponseDTO}, written by a single generator.
+     */
+    private static final class NdjsonWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(ObjectMapper mapper, OutputStream output) throws IOException {
+            generator = mapper.getFactory().createGenerator(output);
+            // Rows end with a newline instead of being separated by a space
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rows) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], rows.getLong(1));
+            generator.writeStringField(COLUMNS[1], rows.getString(2));
+            generator.writeStringField(COLUMNS[2], rows.getString(3));
+            generator.writeStringField(COLUMNS[3], rows.getString(4));
+            generator.writeStringField(COLUMNS[4], dateTime(rows, 5));
+            generator.writeStringField(COLUMNS[5], dateTime(rows, 6));
+            generator.writeNumberField(COLUMNS[6], rows.getInt(7));
+            generator.writeNumberField(COLUMNS[7], rows.getInt(8));
+            generator.writeStringField(COLUMNS[8], rows.getString(9));
+            generator.writeStringField(COLUMNS[9], dateTime(rows, 10));
+            generator.writeStringField(COLUMNS[10], dateTime(rows, 11));
+            generator.writeNumberField(COLUMNS[11], rows.getLong(12));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; nulls are empty fields.
+     */
+    private static final class CsvWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream output) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rows) throws SQLException, IOException {
+            for (int column = 1; column <= COLUMNS.length; column++) {
+                if (column > 1) {
+                    writer.write(',');
+                }
+                String value = switch (column) {
+                    case 5, 6, 10, 11 -> dateTime(rows, column);
+                    default -> rows.getString(column);
+                };
+                if (value != null) {
+                    field(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            boolean quoted = false;
+            for (int i = 0; i < value.length() && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quoted) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
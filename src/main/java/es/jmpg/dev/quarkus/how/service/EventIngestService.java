@@ -0,0 +1,378 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventMessage;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies batches of upstream {@link EventMessage}s keyed by their upstream id.
+ * {@code event_sources} maps every upstream id to the event it created: a new upstream id gets the next value of
+ * {@code events_SEQ}, the top of a block no pooled generator hands out, so an upstream id never lands on an event
+ * created through the API, whatever its value.
+ * A batch is one transaction: the source rows and then their events are locked with one SELECT each, new sources are
+ * added by one multi-row INSERT, creations and updates are written by a single multi-row {@code MERGE} (standard SQL,
+ * run by H2 and PostgreSQL 15+), and deletions by one {@code DELETE}.
+ * Every source keeps the {@code timestamp} of the last message applied to it, even once its event is deleted; a
+ * message that is not newer is dropped as stale, so redelivered or reordered records never overwrite newer data.
+ * Messages for an event that was archived are dropped too, rather than bringing back a live copy of it.
+ * Within a batch only the newest message per upstream id counts. Applied changes fire {@link EventChange}s like API
+ * writes, so caches, indexes, statistics and the outbox follow.
+ */
+@ApplicationScoped
+public class EventIngestService {
+
+    public static final String DELETED = "DELETED";
+
+    private static final String EVENT_SEQUENCE = "\"events_SEQ\"";
+
+    private static final String ROW = "(CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(1000)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS INTEGER), "
+            + "CAST(? AS INTEGER), CAST(? AS VARCHAR(20)), CAST(? AS TIMESTAMP))";
+
+    // Mixed-case columns are quoted, PostgreSQL folds bare names to lowercase. Right-hand sides read the row as it
+    // was before the update, so seats shift by the old-to-new capacity delta, which must leave the held seats covered
+    private static final String MERGE_ON = " AS s(id, title, description, location, startDate, endDate, capacity, "
+            + "availableSeats, status, sourceTimestamp) ON t.id = s.id "
+            + "WHEN MATCHED AND (t.\"sourceTimestamp\" IS NULL OR t.\"sourceTimestamp\" < s.sourceTimestamp) "
+            + "AND t.\"availableSeats\" + s.capacity - t.capacity >= t.\"heldSeats\" THEN UPDATE SET "
+            + "title = s.title, description = s.description, location = s.location, \"startDate\" = s.startDate, "
+            + "\"endDate\" = s.endDate, \"availableSeats\" = t.\"availableSeats\" + s.capacity - t.capacity, "
+            + "capacity = s.capacity, status = COALESCE(s.status, t.status), "
+            + "\"sourceTimestamp\" = s.sourceTimestamp, \"updatedAt\" = CAST(? AS TIMESTAMP), version = t.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (id, title, description, location, \"startDate\", \"endDate\", capacity, "
+            + "\"availableSeats\", \"heldSeats\", status, \"sourceTimestamp\", \"createdAt\", \"updatedAt\", version) "
+            + "VALUES (s.id, s.title, s.description, s.location, s.startDate, s.endDate, s.capacity, "
+            + "COALESCE(s.availableSeats, s.capacity), 0, COALESCE(s.status, 'SCHEDULED'), s.sourceTimestamp, "
+            + "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), 0)";
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    /**
+     * Messages applied, dropped as stale and rejected by one batch.
+     */
+    public record Outcome(int created, int updated, int deleted, int stale, int rejected) {
+    }
+
+    @Transactional
+    @DbTimed
+    public Outcome apply(List<EventMessage> messages) {
+        Map<Long, EventMessage> newest = new LinkedHashMap<>();
+        int stale = 0;
+        int rejected = 0;
+        for (EventMessage message : messages) {
+            String problem = validate(message);
+            if (problem != null) {
+                Log.warnf("Rejected ingested event %s: %s", message.id, problem);
+                rejected++;
+                continue;
+            }
+            EventMessage previous = newest.get(message.id);
+            if (previous != null) {
+                // One of the two is superseded within the batch
+                stale++;
+            }
+            if (previous == null || !previous.timestamp.isAfter(message.timestamp)) {
+                newest.put(message.id, message);
+            }
+        }
+        if (newest.isEmpty()) {
+            return new Outcome(0, 0, 0, stale, rejected);
+        }
+
+        Session session = Event.getEntityManager().unwrap(Session.class);
+        Map<Long, Source> sources = session.doReturningWork(connection -> lockSources(connection, newest.keySet()));
+
+        List<EventMessage> newer = new ArrayList<>();
+        List<EventMessage> unknown = new ArrayList<>();
+        for (EventMessage message : newest.values()) {
+            Source source = sources.get(message.id);
+            if (source != null ? !message.timestamp.isAfter(source.sourceTimestamp) : DELETED.equals(message.action)) {
+                stale++;
+            } else {
+                newer.add(message);
+                if (source == null) {
+                    unknown.add(message);
+                }
+            }
+        }
+        if (newer.isEmpty()) {
+            return new Outcome(0, 0, 0, stale, rejected);
+        }
+        if (!unknown.isEmpty()) {
+            String nextId = ((SessionFactoryImplementor) session.getSessionFactory()).getJdbcServices().getDialect()
+                    .getSequenceSupport().getSelectSequenceNextValString(EVENT_SEQUENCE);
+            sources.putAll(session.doReturningWork(connection -> register(connection, unknown, nextId)));
+        }
+        List<Long> eventIds = newer.stream().map(message -> sources.get(message.id).eventId).toList();
+        Map<Long, Current> current = session.doReturningWork(connection -> lock(connection, eventIds));
+        List<Long> missing = eventIds.stream().filter(eventId -> !current.containsKey(eventId)).toList();
+        Set<Long> archived = missing.isEmpty()
+                ? Set.of()
+                : session.doReturningWork(connection -> archived(connection, missing));
+
+        List<Mapped> upserts = new ArrayList<>();
+        List<Mapped> deletes = new ArrayList<>();
+        int created = 0;
+        for (EventMessage message : newer) {
+            Long eventId = sources.get(message.id).eventId;
+            Current row = current.get(eventId);
+            if (archived.contains(eventId)) {
+                // Its id stays taken by the archived copy, which is history now
+                Log.debugf("Dropped ingested event %s: event %s is archived", message.id, eventId);
+                stale++;
+            } else if (DELETED.equals(message.action)) {
+                if (row != null) {
+                    deletes.add(new Mapped(eventId, message));
+                } else {
+                    stale++;
+                }
+            } else if (row != null && row.availableSeats + message.capacity - row.capacity < row.heldSeats) {
+                Log.warnf("Rejected ingested event %s: capacity is lower than the seats already reserved or held",
+                        message.id);
+                rejected++;
+            } else {
+                upserts.add(new Mapped(eventId, message));
+                if (row == null) {
+                    created++;
+                }
+            }
+        }
+
+        session.doWork(connection -> {
+            merge(connection, upserts);
+            delete(connection, deletes);
+            touch(connection, upserts);
+            touch(connection, deletes);
+        });
+
+        if (!upserts.isEmpty()) {
+            List<Long> ids = upserts.stream().map(Mapped::eventId).toList();
+            for (Event event : Event.<Event>list("id in ?1", ids)) {
+                EventChange.Action action = current.containsKey(event.id)
+                        ? EventChange.Action.UPDATED
+                        : EventChange.Action.CREATED;
+                changes.fire(new EventChange(event.id, action, EventResponseDTO.fromEntity(event)));
+            }
+        }
+        for (Mapped deleted : deletes) {
+            changes.fire(new EventChange(deleted.eventId, EventChange.Action.DELETED, null));
+        }
+        return new Outcome(created, upserts.size() - created, deletes.size(), stale, rejected);
+    }
+
+    /**
+     * Checks what the schema would refuse, so one bad record is dropped instead of failing its whole batch.
+     */
+    private static String validate(EventMessage message) {
+        if (message.id == null || message.timestamp == null) {
+            return "id and timestamp are required";
+        }
+        if (DELETED.equals(message.action)) {
+            return null;
+        }
+        if (isBlank(message.title) || isBlank(message.location) || message.startDate == null
+                || message.endDate == null || message.capacity == null) {
+            return "title, location, startDate, endDate and capacity are required";
+        }
+        if (message.title.length() > 255 || message.location.length() > 255
+                || (message.description != null && message.description.length() > 1000)) {
+            return "title, location or description is too long";
+        }
+        if (!message.endDate.isAfter(message.startDate)) {
+            return "endDate must be after startDate";
+        }
+        if (message.capacity < 1 || (message.availableSeats != null
+                && (message.availableSeats < 0 || message.availableSeats > message.capacity))) {
+            return "capacity must be positive and availableSeats within it";
+        }
+        if (message.status != null) {
+            try {
+                message.status = Event.EventStatus.valueOf(message.status.toUpperCase()).name();
+            } catch (IllegalArgumentException e) {
+                return "unknown status " + message.status;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Map<Long, Source> lockSources(Connection connection, Collection<Long> externalIds)
+            throws SQLException {
+        String sql = "SELECT \"externalId\", \"eventId\", \"sourceTimestamp\" FROM event_sources WHERE \"externalId\" IN ("
+                + placeholders(externalIds.size()) + ") FOR UPDATE";
+        Map<Long, Source> sources = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Long externalId : externalIds) {
+                statement.setLong(index++, externalId);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    sources.put(rows.getLong(1), new Source(rows.getLong(2), rows.getTimestamp(3).toLocalDateTime()));
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Gives each upstream id an event id of its own. A concurrent batch registering the same upstream id fails this
+     * one on the primary key, and its retry finds the source.
+     */
+    private static Map<Long, Source> register(Connection connection, List<EventMessage> messages, String nextId)
+            throws SQLException {
+        String sql = "INSERT INTO event_sources (\"externalId\", \"eventId\", \"sourceTimestamp\") VALUES "
+                + messages.stream().map(message -> "(?, " + nextId + ", ?)").collect(Collectors.joining(", "));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (EventMessage message : messages) {
+                statement.setLong(index++, message.id);
+                statement.setTimestamp(index++, Timestamp.valueOf(message.timestamp));
+            }
+            statement.executeUpdate();
+        }
+        return lockSources(connection, messages.stream().map(message -> message.id).toList());
+    }
+
+    private static Map<Long, Current> lock(Connection connection, Collection<Long> ids) throws SQLException {
+        String sql = "SELECT id, capacity, \"availableSeats\", \"heldSeats\" FROM events WHERE id IN ("
+                + placeholders(ids.size()) + ") FOR UPDATE";
+        Map<Long, Current> current = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    current.put(rows.getLong(1), new Current(rows.getInt(2), rows.getInt(3), rows.getInt(4)));
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Set<Long> archived(Connection connection, List<Long> ids) throws SQLException {
+        Set<Long> archived = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM events_archive WHERE id IN (" + placeholders(ids.size()) + ")")) {
+            int index = 1;
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    archived.add(rows.getLong(1));
+                }
+            }
+        }
+        return archived;
+    }
+
+    private static void merge(Connection connection, List<Mapped> upserts) throws SQLException {
+        if (upserts.isEmpty()) {
+            return;
+        }
+        String sql = "MERGE INTO events t USING (VALUES "
+                + upserts.stream().map(upsert -> ROW).collect(Collectors.joining(", ")) + ")" + MERGE_ON;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Mapped upsert : upserts) {
+                EventMessage message = upsert.message;
+                statement.setLong(index++, upsert.eventId);
+                statement.setString(index++, message.title);
+                statement.setString(index++, message.description);
+                statement.setString(index++, message.location);
+                statement.setTimestamp(index++, Timestamp.valueOf(message.startDate));
+                statement.setTimestamp(index++, Timestamp.valueOf(message.endDate));
+                statement.setInt(index++, message.capacity);
+                if (message.availableSeats != null) {
+                    statement.setInt(index++, message.availableSeats);
+                } else {
+                    statement.setNull(index++, Types.INTEGER);
+                }
+                statement.setString(index++, message.status);
+                statement.setTimestamp(index++, Timestamp.valueOf(message.timestamp));
+            }
+            statement.setTimestamp(index++, now);
+            statement.setTimestamp(index++, now);
+            statement.setTimestamp(index, now);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void delete(Connection connection, List<Mapped> deletes) throws SQLException {
+        if (deletes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM events WHERE id IN (" + placeholders(deletes.size()) + ")")) {
+            int index = 1;
+            for (Mapped deleted : deletes) {
+                statement.setLong(index++, deleted.eventId);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Records the timestamp of the messages applied on their sources.
+     */
+    private static void touch(Connection connection, List<Mapped> applied) throws SQLException {
+        if (applied.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE event_sources SET \"sourceTimestamp\" = ? WHERE \"externalId\" = ?")) {
+            for (Mapped mapped : applied) {
+                statement.setTimestamp(1, Timestamp.valueOf(mapped.message.timestamp));
+                statement.setLong(2, mapped.message.id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record Source(long eventId, LocalDateTime sourceTimestamp) {
+    }
+
+    private record Current(int capacity, int availableSeats, int heldSeats) {
+    }
+
+    private record Mapped(long eventId, EventMessage message) {
+    }
+}
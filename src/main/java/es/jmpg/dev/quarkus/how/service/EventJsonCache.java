@@ -0,0 +1,117 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import es.jmpg.dev.quarkus.how.dto.CacheStatsDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Holds the final JSON bytes of single-event responses, with their version for the ETag,
+ * so a hit skips the query, the DTO mapping and Jackson.
+ * Caffeine computes a missing entry once per key while concurrent callers for the same id wait for it,
+ * which collapses a burst of misses into a single database load.
+ * Entries are dropped after every committed {@link EventChange}; an invalidation racing an in-flight load
+ * waits for that load and then removes its result, so stale bytes are never left behind.
+ * Entries are always loaded from the primary: one read from a lagging replica would otherwise be served to every
+ * client, including the writer, until the entry expires.
+ */
+@ApplicationScoped
+public class EventJsonCache {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ReplicaReads replicaReads;
+
+    @ConfigProperty(name = "events.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "events.cache.max-size", defaultValue = "10000")
+    long maxSize;
+
+    @ConfigProperty(name = "events.cache.ttl", defaultValue = "PT30S")
+    Duration ttl;
+
+    private Cache<Long, CachedEvent> cache;
+    private ObjectWriter writer;
+
+    @PostConstruct
+    void init() {
+        writer = objectMapper.writerFor(EventResponseDTO.class);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "event-json");
+    }
+
+    public CachedEvent get(Long id, Supplier<EventResponseDTO> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+        return cache.get(id, key -> serialize(replicaReads.onPrimary(loader)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventChange change) {
+        invalidate(change.eventId);
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.enabled = enabled;
+        dto.size = cache.estimatedSize();
+        dto.hits = stats.hitCount();
+        dto.misses = stats.missCount();
+        dto.evictions = stats.evictionCount();
+        dto.hitRate = stats.hitRate();
+        return dto;
+    }
+
+    private CachedEvent serialize(EventResponseDTO event) {
+        try {
+            return new CachedEvent(writer.writeValueAsBytes(event), event.version);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Response bytes together with the version they were rendered from, so the ETag always matches the body.
+     */
+    public static final class CachedEvent {
+
+        public final byte[] json;
+        public final long version;
+
+        CachedEvent(byte[] json, long version) {
+            this.json = json;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves events through their lifecycle as their start and end dates pass.
+ * Each transition is one indexed range query for a batch of ids, locked, and one bulk UPDATE for the whole batch;
+ * no entity is loaded. Every moved event still fires a STATUS_CHANGED {@link EventChange}, so the outbox, caches
+ * and other observers see the same notifications as for a status change made through the API.
+ * The job runs on the node holding the {@code event-lifecycle} lease; the lease is renewed before every batch,
+ * so a long backlog never outlives it.
+ */
+@ApplicationScoped
+public class EventLifecycleScheduler {
+
+    static final String LEASE = "event-lifecycle";
+
+    /**
+     * Applied in this order: finished events are completed first, so every SCHEDULED event that has started
+     * by the time START runs is still going on and the START range holds only rows to move.
+     */
+    enum Transition {
+        FINISH(Event.EventStatus.ONGOING, Event.EventStatus.COMPLETED, "e.endDate <= :now"),
+        EXPIRE(Event.EventStatus.SCHEDULED, Event.EventStatus.COMPLETED, "e.endDate <= :now"),
+        START(Event.EventStatus.SCHEDULED, Event.EventStatus.ONGOING, "e.startDate <= :now");
+
+        final Event.EventStatus from;
+        final Event.EventStatus to;
+        final String due;
+
+        Transition(Event.EventStatus from, Event.EventStatus to, String due) {
+            this.from = from;
+            this.to = to;
+            this.due = due;
+        }
+    }
+
+    @ConfigProperty(name = "events.lifecycle.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "events.lifecycle.lease-duration", defaultValue = "PT1M")
+    Duration leaseDuration;
+
+    @Inject
+    ClusterLease lease;
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Transition, Counter> transitions = new EnumMap<>(Transition.class);
+    private volatile boolean leader;
+
+    @PostConstruct
+    void registerMetrics() {
+        for (Transition transition : Transition.values()) {
+            transitions.put(transition, Counter.builder("events.lifecycle.transitions")
+                    .description("Events moved to a new status by the lifecycle job")
+                    .tag("from", transition.from.name())
+                    .tag("to", transition.to.name())
+                    .register(registry));
+        }
+        Gauge.builder("events.lifecycle.leader", this, scheduler -> scheduler.leader ? 1 : 0)
+                .description("1 while this node holds the lifecycle lease")
+                .register(registry);
+    }
+
+    @Scheduled(every = "${events.lifecycle.interval:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP,
+            skipExecutionIf = Scheduled.ApplicationNotRunning.class)
+    void tick() {
+        try {
+            advance(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Lifecycle run failed, it will be retried on the next tick");
+        }
+    }
+
+    /**
+     * Applies every transition due at {@code now} and returns the number of events moved,
+     * or -1 when another node holds the lease.
+     */
+    public int advance(LocalDateTime now) {
+        int moved = 0;
+        for (Transition transition : Transition.values()) {
+            int batch;
+            do {
+                leader = lease.tryAcquire(LEASE, leaseDuration);
+                if (!leader) {
+                    return moved == 0 ? -1 : moved;
+                }
+                batch = advanceBatch(transition, now);
+                moved += batch;
+            } while (batch == batchSize);
+        }
+        if (moved > 0) {
+            Log.debugf("Lifecycle run moved %d events", moved);
+        }
+        return moved;
+    }
+
+    @DbTimed
+    @Transactional
+    int advanceBatch(Transition transition, LocalDateTime now) {
+        List<Long> ids = Event.getEntityManager()
+                .createQuery("select e.id from Event e where e.status = :from and " + transition.due, Long.class)
+                .setParameter("from", transition.from)
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Locked rows cannot change underneath, so every id is moved and the version bump matches a single write
+        Event.update("status = ?1, version = version + 1, updatedAt = ?2 where id in ?3",
+                transition.to, LocalDateTime.now(), ids);
+
+        List<EventResponseDTO> moved = Event.getEntityManager()
+                .createQuery(EventService.RESPONSE_PROJECTION + " where e.id in :ids", EventResponseDTO.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getResultList();
+        for (EventResponseDTO event : moved) {
+            changes.fire(new EventChange(event.id, EventChange.Action.STATUS_CHANGED, event));
+        }
+        transitions.get(transition).increment(moved.size());
+        return ids.size();
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        if (leader) {
+            try {
+                lease.release(LEASE);
+            } catch (RuntimeException e) {
+                Log.debugf(e, "Could not release the lifecycle lease, it will expire");
+            }
+        }
+    }
+}
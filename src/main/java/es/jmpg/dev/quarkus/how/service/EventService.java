@@ -1,36 +1,90 @@
 package es.jmpg.dev.quarkus.how.service;
 
 import es.jmpg.dev.quarkus.how.dto.EventDTO;
+import es.jmpg.dev.quarkus.how.dto.EventPageDTO;
 import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
 import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * EventService demonstrates Quarkus CDI dependency injection with @ApplicationScoped.
  * Unlike Spring's @Service + @Autowired pattern, Quarkus uses standard jakarta.inject providing
  * faster startup time and minimal reflection overhead, crucial for cloud-native deployments.
  */
+@DbTimed
 @ApplicationScoped
 public class EventService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_SEARCH_TERMS = 8;
+
+    private static final String PROJECTION = "select new " + EventResponseDTO.class.getName()
+            + "(e.id, e.title, e.description, e.location, e.startDate, e.endDate, e.capacity, e.availableSeats, "
+            + "e.status, e.createdAt, e.updatedAt, e.version) from ";
+
+    /**
+     * Builds responses in the query itself; read paths never load managed entities, so Hibernate keeps no
+     * dirty-checking snapshots and no field is copied twice.
+     */
+    public static final String RESPONSE_PROJECTION = PROJECTION + "Event e";
+
+    /**
+     * The same projection over the events moved to {@code events_archive}, which reads only see when asked to.
+     */
+    public static final String ARCHIVE_PROJECTION = PROJECTION + "ArchivedEvent e";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @Inject
+    SeatInventory seatInventory;
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    @Inject
+    EventTextIndex textIndex;
+
+    @Inject
+    ReplicaReads replicaReads;
+
     public List<EventResponseDTO> getAllEvents() {
-        return Event.<Event>listAll()
-                .stream()
-                .map(EventResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        return replicaReads.read(em -> readQuery(em, RESPONSE_PROJECTION + " order by e.id").getResultList());
     }
 
     public EventResponseDTO getEventById(Long id) {
-        Event event = Event.findById(id);
-        if (event == null) {
-            throw new NotFoundException("Event with id " + id + " not found");
-        }
-        return EventResponseDTO.fromEntity(event);
+        return getEventById(id, false);
+    }
+
+    public EventResponseDTO getEventById(Long id, boolean archived) {
+        return replicaReads.read(em -> readQuery(em, projection(archived) + " where e.id = :id")
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Event with id " + id + " not found")));
     }
 
     @Transactional
@@ -39,16 +93,22 @@ public class EventService {
 
         Event event = eventDTO.toEntity();
         event.persist();
-        
-        return EventResponseDTO.fromEntity(event);
+
+        EventResponseDTO created = EventResponseDTO.fromEntity(event);
+        changes.fire(new EventChange(event.id, EventChange.Action.CREATED, created));
+        return created;
     }
 
-    @Transactional
     public EventResponseDTO updateEvent(Long id, EventDTO eventDTO) {
-        Event event = Event.findById(id);
-        if (event == null) {
-            throw new NotFoundException("Event with id " + id + " not found");
-        }
+        return updateEvent(id, eventDTO, null);
+    }
+
+    /**
+     * Updates the event if its version still equals {@code expectedVersion}; a null version updates unconditionally.
+     */
+    @Transactional
+    public EventResponseDTO updateEvent(Long id, EventDTO eventDTO, Long expectedVersion) {
+        Event event = lockForUpdate(id, expectedVersion);
 
         validateEventDates(eventDTO.startDate, eventDTO.endDate);
 
@@ -58,15 +118,20 @@ public class EventService {
         event.startDate = eventDTO.startDate;
         event.endDate = eventDTO.endDate;
 
+        event.persist();
+
+        // Seats are shifted in place rather than read-modified-written, so concurrent reservations are kept
         if (eventDTO.capacity != null && !eventDTO.capacity.equals(event.capacity)) {
-            int diff = eventDTO.capacity - event.capacity;
-            event.capacity = eventDTO.capacity;
-            event.availableSeats = event.availableSeats + diff;
+            if (!seatInventory.resize(id, eventDTO.capacity - event.capacity)) {
+                throw new ClientErrorException("Capacity cannot be lower than the seats already reserved",
+                        Response.Status.CONFLICT);
+            }
+            Event.getEntityManager().refresh(event);
         }
 
-        event.persist();
-        
-        return EventResponseDTO.fromEntity(event);
+        EventResponseDTO updated = EventResponseDTO.fromEntity(event);
+        changes.fire(new EventChange(id, EventChange.Action.UPDATED, updated));
+        return updated;
     }
 
     @Transactional
@@ -76,24 +141,273 @@ public class EventService {
             throw new NotFoundException("Event with id " + id + " not found");
         }
         event.delete();
+        changes.fire(new EventChange(id, EventChange.Action.DELETED, null));
     }
 
-    @Transactional
     public EventResponseDTO updateEventStatus(Long id, Event.EventStatus status) {
-        Event event = Event.findById(id);
-        if (event == null) {
-            throw new NotFoundException("Event with id " + id + " not found");
-        }
+        return updateEventStatus(id, status, null);
+    }
+
+    @Transactional
+    public EventResponseDTO updateEventStatus(Long id, Event.EventStatus status, Long expectedVersion) {
+        Event event = lockForUpdate(id, expectedVersion);
         event.status = status;
         event.persist();
-        return EventResponseDTO.fromEntity(event);
+
+        EventResponseDTO updated = EventResponseDTO.fromEntity(event);
+        changes.fire(new EventChange(id, EventChange.Action.STATUS_CHANGED, updated));
+        return updated;
+    }
+
+    /**
+     * Version-only lookup for conditional requests, answered without loading or mapping the event.
+     */
+    public long getVersion(Long id) {
+        return getVersion(id, false);
+    }
+
+    public long getVersion(Long id, boolean archived) {
+        return replicaReads.read(em -> em
+                .createQuery("select e.version from " + entity(archived) + " e where e.id = :id", Long.class)
+                .setParameter("id", id)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Event with id " + id + " not found")));
+    }
+
+    /**
+     * Changes whenever an event of the collection is written (max updatedAt) or one is added or removed (count).
+     */
+    public String getCollectionVersion(Event.EventStatus status) {
+        return getCollectionVersion(status, false);
+    }
+
+    /**
+     * Row count, sum of versions and latest {@code updatedAt} of the collection. Every write bumps a version, even
+     * the ones that leave {@code updatedAt} alone, so the sum moves with each of them.
+     */
+    public String getCollectionVersion(Event.EventStatus status, boolean archived) {
+        String jpql = "select count(e), sum(e.version), max(e.updatedAt) from " + entity(archived) + " e"
+                + (status != null ? " where e.status = :status" : "");
+        Object[] row = replicaReads.read(em -> {
+            TypedQuery<Object[]> query = em
+                    .createQuery(jpql, Object[].class)
+                    .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            return query.getSingleResult();
+        });
+        long versions = row[1] != null ? ((Number) row[1]).longValue() : 0;
+        LocalDateTime lastUpdate = (LocalDateTime) row[2];
+        long micros = lastUpdate == null
+                ? 0
+                : lastUpdate.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastUpdate.getNano() / 1_000;
+        return row[0] + "-" + Long.toString(versions, 36) + "-" + Long.toString(micros, 36);
     }
 
     public List<EventResponseDTO> getEventsByStatus(Event.EventStatus status) {
-        return Event.<Event>list("status", status)
-                .stream()
-                .map(EventResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        return replicaReads.read(em -> readQuery(em, RESPONSE_PROJECTION + " where e.status = :status order by e.id")
+                .setParameter("status", status)
+                .getResultList());
+    }
+
+    public EventPageDTO getEventsPage(Event.EventStatus status, EventCursor.SortKey sort, String after, int limit) {
+        return getEventsPage(status, sort, after, limit, false);
+    }
+
+    public EventPageDTO getEventsPage(Event.EventStatus status, EventCursor.SortKey sort, String after, int limit,
+                                      boolean archived) {
+        EventCursor cursor = after != null ? EventCursor.decode(after) : null;
+        if (cursor != null && cursor.sort == EventCursor.SortKey.END_DATE) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+        EventCursor.SortKey sortKey = cursor != null ? cursor.sort : sort;
+
+        List<String> clauses = new ArrayList<>();
+        Parameters params = new Parameters();
+        if (status != null) {
+            clauses.add("e.status = :status");
+            params.and("status", status);
+        }
+        return replicaReads.read(em -> page(em, projection(archived), clauses, params, "", sortKey, cursor, limit));
+    }
+
+    /**
+     * Events overlapping {@code [from, to)}, optionally narrowed by status and exact location, in end date order.
+     * Ordering by end date makes {@code endDate > from} the start of an index range scan on
+     * {@code (status|location, endDate, id)}; {@code startDate < to} only rejects events that begin after the window,
+     * which the scan reaches last, so a page stops after about {@code limit} rows wherever the window lies.
+     * In start date order every event that ended before {@code from} would have to be skipped first.
+     */
+    public EventPageDTO searchEvents(LocalDateTime from, LocalDateTime to, Event.EventStatus status, String location,
+                                     String after, int limit) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+        EventCursor cursor = after != null ? EventCursor.decode(after) : null;
+        if (cursor != null && cursor.sort != EventCursor.SortKey.END_DATE) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+
+        List<String> clauses = new ArrayList<>();
+        Parameters params = new Parameters();
+        // Ordering by the column fixed by the equality filter changes nothing in the result, but lets planners
+        // that only match ORDER BY against an index from its first column (H2) read the index in order
+        String leadingOrder = "";
+        if (status != null) {
+            clauses.add("e.status = :status");
+            params.and("status", status);
+            leadingOrder = "e.status, ";
+        }
+        if (location != null) {
+            clauses.add("e.location = :location");
+            params.and("location", location);
+            leadingOrder = "e.location, ";
+        }
+        if (from != null) {
+            clauses.add("e.endDate > :from");
+            params.and("from", from);
+        }
+        if (to != null) {
+            clauses.add("e.startDate < :to");
+            params.and("to", to);
+        }
+        String order = leadingOrder;
+        return replicaReads.read(em -> page(em, RESPONSE_PROJECTION, clauses, params, order,
+                EventCursor.SortKey.END_DATE, cursor, limit));
+    }
+
+    /**
+     * Keyword search, best match first. The index only ranks ids; the rows themselves are read from the table,
+     * so results always show committed state even if the index lags behind by a change.
+     */
+    public List<EventResponseDTO> searchText(String query, int limit) {
+        List<String> tokens = TextTokens.of(query);
+        if (tokens.isEmpty()) {
+            throw new BadRequestException("q must contain at least one letter or digit");
+        }
+        if (tokens.size() > MAX_SEARCH_TERMS) {
+            throw new BadRequestException("q must have at most " + MAX_SEARCH_TERMS + " words");
+        }
+        List<Long> ids = textIndex.search(tokens, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventResponseDTO> rows = getEventsByIds(ids).stream()
+                .collect(Collectors.toMap(event -> event.id, Function.identity()));
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Current state of the given events in no particular order; ids that no longer exist are left out.
+     */
+    public List<EventResponseDTO> getEventsByIds(Collection<Long> ids) {
+        return replicaReads.read(em -> readQuery(em, RESPONSE_PROJECTION + " where e.id in :ids")
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    /**
+     * Keyset pagination: the page starts strictly after the cursor row, so the cost of a page does not grow
+     * with its position. One extra row is fetched to know whether a {@code next} cursor must be returned.
+     */
+    private EventPageDTO page(EntityManager em, String projection, List<String> clauses, Parameters params,
+                              String leadingOrder, EventCursor.SortKey sortKey, EventCursor cursor, int limit) {
+        if (cursor != null && sortKey == EventCursor.SortKey.ID) {
+            clauses.add("e.id > :id");
+            params.and("id", cursor.id);
+        } else if (cursor != null) {
+            // The redundant leading bound gives the planner a range to seek to, the OR alone is not sargable
+            clauses.add(sortKey.column + " >= :date");
+            clauses.add("(" + sortKey.column + " > :date or (" + sortKey.column + " = :date and e.id > :id))");
+            params.and("date", cursor.date).and("id", cursor.id);
+        }
+
+        String where = clauses.isEmpty() ? "" : " where " + String.join(" and ", clauses);
+        String order = sortKey == EventCursor.SortKey.ID
+                ? " order by " + leadingOrder + "e.id"
+                : " order by " + leadingOrder + sortKey.column + ", e.id";
+        TypedQuery<EventResponseDTO> query = readQuery(em, projection + where + order);
+        params.map().forEach(query::setParameter);
+
+        List<EventResponseDTO> rows = query.setMaxResults(limit + 1).getResultList();
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            EventResponseDTO last = rows.get(limit - 1);
+            next = switch (sortKey) {
+                case ID -> EventCursor.afterId(last.id).encode();
+                case START_DATE -> EventCursor.afterDate(sortKey, last.startDate, last.id).encode();
+                case END_DATE -> EventCursor.afterDate(sortKey, last.endDate, last.id).encode();
+            };
+        }
+
+        return new EventPageDTO(rows, next);
+    }
+
+    /**
+     * Pushes every matching event to the sink while the rows are still being read from the JDBC cursor.
+     * Rows are projected straight into responses, so nothing accumulates in the persistence context. Like the other
+     * reads, the stream goes to the replica when the request may use it.
+     */
+    public void streamEvents(Event.EventStatus status, Consumer<EventResponseDTO> sink) {
+        streamEvents(status, false, sink);
+    }
+
+    public void streamEvents(Event.EventStatus status, boolean archived, Consumer<EventResponseDTO> sink) {
+        replicaReads.stream(em -> {
+            TypedQuery<EventResponseDTO> query = status == null
+                    ? readQuery(em, projection(archived) + " order by e.id")
+                    : readQuery(em, projection(archived) + " where e.status = :status order by e.id")
+                    .setParameter("status", status);
+            try (Stream<EventResponseDTO> rows = query
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .getResultStream()) {
+                rows.forEach(sink);
+            }
+        });
+    }
+
+    /**
+     * Reads cover the live {@code events} table unless archived events are asked for explicitly. Archival keeps
+     * old terminal events out of the live table, so its queries and indexes only span current events.
+     */
+    private static String projection(boolean archived) {
+        return archived ? ARCHIVE_PROJECTION : RESPONSE_PROJECTION;
+    }
+
+    private static String entity(boolean archived) {
+        return archived ? "ArchivedEvent" : "Event";
+    }
+
+    /**
+     * Read queries never need pending changes flushed first and return nothing Hibernate has to track.
+     */
+    private static TypedQuery<EventResponseDTO> readQuery(EntityManager em, String jpql) {
+        return em
+                .createQuery(jpql, EventResponseDTO.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    /**
+     * Bumps the version with a conditional UPDATE before the entity is loaded. The UPDATE takes the row lock,
+     * so the version cannot move again until this transaction ends, and the check and the write are one step.
+     */
+    private Event lockForUpdate(Long id, Long expectedVersion) {
+        int bumped = expectedVersion == null
+                ? Event.update("version = version + 1 where id = ?1", id)
+                : Event.update("version = version + 1 where id = ?1 and version = ?2", id, expectedVersion);
+        if (bumped == 0) {
+            if (Event.count("id", id) == 0) {
+                throw new NotFoundException("Event with id " + id + " not found");
+            }
+            throw new ClientErrorException("Event with id " + id + " is no longer at version " + expectedVersion,
+                    Response.Status.PRECONDITION_FAILED);
+        }
+        return Event.findById(id);
     }
 
     private void validateEventDates(java.time.LocalDateTime startDate, java.time.LocalDateTime endDate) {
@@ -0,0 +1,314 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.dto.EventStatsDTO;
+import es.jmpg.dev.quarkus.how.dto.LocationStatsDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dashboard aggregates kept in memory: events per status, and capacity and seats sold per location.
+ * Committed changes adjust them by the difference between the previous and the new state of the event, so a read
+ * never queries the database and costs the same however many events there are. Cancelled events are counted per
+ * status but hold no capacity.
+ * The aggregates are built from the table at startup and reconciled with it periodically. That corrects what
+ * changes cannot tell exactly: writes made on other nodes, and changes whose observers ran out of commit order.
+ */
+@ApplicationScoped
+public class EventStatistics {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    @Inject
+    EventService eventService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    StartupLoader startupLoader;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Tracked> events = new HashMap<>();
+    private final Map<String, LocationTotals> locations = new HashMap<>();
+    private final long[] byStatus = new long[Event.EventStatus.values().length];
+    private final AtomicLong corrections = new AtomicLong();
+    private long generation;
+    private LocalDateTime reconciledAt;
+    private long lastCorrections;
+    private volatile EventStatsDTO snapshot;
+    private volatile boolean loaded;
+
+    /**
+     * Last state applied for one event. {@code generation} tells reconciliation whether the event was seen or
+     * changed since the scan started.
+     */
+    private static final class Tracked {
+
+        Event.EventStatus status;
+        String location;
+        int capacity;
+        int availableSeats;
+        long version;
+        long generation;
+    }
+
+    private static final class LocationTotals {
+
+        long events;
+        long capacity;
+        long seatsSold;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("events.stats.corrections", corrections, AtomicLong::get)
+                .description("Events whose aggregates were corrected by reconciliation with the database")
+                .register(registry);
+    }
+
+    void load(@Observes StartupEvent startup) {
+        startupLoader.load("event-stats", () -> {
+            long start = System.nanoTime();
+            scan();
+            Log.infof("Built statistics of %d events in %d ms", events.size(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    @Scheduled(every = "${events.stats.reconcile-interval:5m}", delayed = "${events.stats.reconcile-interval:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP,
+            skipExecutionIf = Scheduled.ApplicationNotRunning.class)
+    void scheduledReconcile() {
+        try {
+            long corrected = reconcile();
+            if (corrected > 0) {
+                Log.infof("Statistics reconciliation corrected %d events", corrected);
+            }
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Statistics reconciliation failed, it will be retried");
+        }
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventChange change) {
+        lock.lock();
+        try {
+            switch (change.action) {
+                case CREATED, UPDATED, STATUS_CHANGED -> apply(change.event);
+                case SEATS_CHANGED -> takeSeats(change.eventId, change.seatsTaken);
+                case DELETED, ARCHIVED -> remove(change.eventId);
+            }
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Served from the aggregates; the response is built once per change and shared by the reads in between.
+     * Until the first scan has completed the aggregates are partial, and the statistics are unavailable.
+     */
+    public EventStatsDTO stats() {
+        if (!loaded) {
+            throw new ServiceUnavailableException("Event statistics are still loading", RETRY_AFTER_SECONDS);
+        }
+        EventStatsDTO current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = build();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compares every row with the aggregates and returns the number of events corrected.
+     */
+    public long reconcile() {
+        long corrected = scan();
+        lock.lock();
+        try {
+            lastCorrections = corrected;
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+        corrections.addAndGet(corrected);
+        return corrected;
+    }
+
+    /**
+     * Takes every row that differs from the aggregates, unless the aggregates already hold a newer version.
+     * Events neither read nor changed during the scan no longer exist and are dropped.
+     */
+    private long scan() {
+        long scan;
+        lock.lock();
+        try {
+            scan = ++generation;
+        } finally {
+            lock.unlock();
+        }
+
+        AtomicLong corrected = new AtomicLong();
+        eventService.streamEvents(null, event -> {
+            lock.lock();
+            try {
+                if (merge(event, scan)) {
+                    corrected.incrementAndGet();
+                    snapshot = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+
+        lock.lock();
+        try {
+            List<Long> gone = new ArrayList<>();
+            events.forEach((id, tracked) -> {
+                if (tracked.generation < scan) {
+                    gone.add(id);
+                }
+            });
+            gone.forEach(this::remove);
+            corrected.addAndGet(gone.size());
+            reconciledAt = LocalDateTime.now();
+            snapshot = null;
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+        return corrected.get();
+    }
+
+    private boolean merge(EventResponseDTO event, long scan) {
+        Tracked tracked = events.get(event.id);
+        if (tracked != null && tracked.version > event.version) {
+            tracked.generation = scan;
+            return false;
+        }
+        boolean differs = tracked == null
+                || tracked.status != Event.EventStatus.valueOf(event.status)
+                || !tracked.location.equals(event.location)
+                || tracked.capacity != event.capacity
+                || tracked.availableSeats != event.availableSeats;
+        if (differs) {
+            apply(event);
+        } else {
+            tracked.version = event.version;
+        }
+        events.get(event.id).generation = scan;
+        return differs;
+    }
+
+    private void apply(EventResponseDTO event) {
+        Tracked tracked = events.get(event.id);
+        if (tracked == null) {
+            tracked = new Tracked();
+            events.put(event.id, tracked);
+        } else if (tracked.version > event.version) {
+            return;
+        } else {
+            count(tracked, -1);
+        }
+        tracked.status = Event.EventStatus.valueOf(event.status);
+        tracked.location = event.location;
+        tracked.capacity = event.capacity;
+        tracked.availableSeats = event.availableSeats;
+        tracked.version = event.version;
+        tracked.generation = generation;
+        count(tracked, 1);
+    }
+
+    /**
+     * Seat updates bump the row version by one, so the tracked version follows and reconciliation can still tell
+     * whether a row it read is older than the aggregates.
+     */
+    private void takeSeats(Long eventId, int seats) {
+        Tracked tracked = events.get(eventId);
+        if (tracked == null) {
+            return;
+        }
+        count(tracked, -1);
+        tracked.availableSeats -= seats;
+        tracked.version++;
+        tracked.generation = generation;
+        count(tracked, 1);
+    }
+
+    private void remove(Long eventId) {
+        Tracked tracked = events.remove(eventId);
+        if (tracked != null) {
+            count(tracked, -1);
+        }
+    }
+
+    private void count(Tracked tracked, int sign) {
+        byStatus[tracked.status.ordinal()] += sign;
+        if (tracked.status == Event.EventStatus.CANCELLED) {
+            return;
+        }
+        LocationTotals totals = locations.computeIfAbsent(tracked.location, location -> new LocationTotals());
+        totals.events += sign;
+        totals.capacity += (long) sign * tracked.capacity;
+        totals.seatsSold += (long) sign * (tracked.capacity - tracked.availableSeats);
+        if (totals.events == 0) {
+            locations.remove(tracked.location);
+        }
+    }
+
+    private EventStatsDTO build() {
+        EventStatsDTO stats = new EventStatsDTO();
+        stats.eventsByStatus = new LinkedHashMap<>();
+        for (Event.EventStatus status : Event.EventStatus.values()) {
+            stats.eventsByStatus.put(status.name(), byStatus[status.ordinal()]);
+            stats.totalEvents += byStatus[status.ordinal()];
+        }
+        stats.locations = new ArrayList<>(locations.size());
+        new TreeMap<>(locations).forEach((location, totals) -> {
+            LocationStatsDTO dto = new LocationStatsDTO();
+            dto.location = location;
+            dto.events = totals.events;
+            dto.capacity = totals.capacity;
+            dto.seatsSold = totals.seatsSold;
+            dto.occupancy = occupancy(totals.seatsSold, totals.capacity);
+            stats.locations.add(dto);
+            stats.totalCapacity += totals.capacity;
+            stats.seatsSold += totals.seatsSold;
+        });
+        stats.occupancy = occupancy(stats.seatsSold, stats.totalCapacity);
+        stats.reconciledAt = reconciledAt;
+        stats.lastCorrections = lastCorrections;
+        return stats;
+    }
+
+    private static double occupancy(long sold, long capacity) {
+        return capacity == 0 ? 0 : (double) sold / capacity;
+    }
+}
@@ -0,0 +1,16 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import java.util.List;
+
+/**
+ * Keyword search over title, location and description. Every query token matches words it is a prefix of,
+ * all tokens must match, and results come best first: title matches rank above location matches, which rank
+ * above description matches, and rare words weigh more than common ones.
+ */
+public interface EventTextIndex {
+
+    /**
+     * Ids of the best matching events, at most {@code limit}, best first.
+     */
+    List<Long> search(List<String> tokens, int limit);
+}
@@ -0,0 +1,205 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of every write sent with an {@code Idempotency-Key}, so a retried request is answered
+ * with the original result instead of being applied again.
+ * Responses are kept in a bounded Caffeine cache in front of the idempotency_keys table: a retry reaching the node
+ * that served the original is answered from memory, one reaching another node from a primary-key lookup, and
+ * neither touches the events table. The row is inserted in the write's own transaction, so a key is only ever
+ * stored together with the change it produced; when two first uses of a key race, the primary key lets one commit
+ * and the other rolls back and replays the winner. A cached response expires with its row, not a full TTL after it
+ * was cached, so a node never replays a key another node would already accept as new.
+ */
+@ApplicationScoped
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int UNPROCESSABLE_CONTENT = 422;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "events.idempotency.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    @ConfigProperty(name = "events.idempotency.max-size", defaultValue = "10000")
+    long maxSize;
+
+    private Cache<String, StoredResponse> cache;
+    private ObjectWriter writer;
+
+    @PostConstruct
+    void init() {
+        writer = objectMapper.writerFor(EventResponseDTO.class);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, StoredResponse stored) ->
+                        max(Duration.between(LocalDateTime.now(), stored.expiresAt), Duration.ZERO)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency-keys");
+    }
+
+    /**
+     * Runs {@code write} once per key and returns its response with {@code status}, or the stored response when
+     * the key was used before. {@code request} (method, path, query and preconditions) and {@code body} identify the
+     * request; a key reused for a different one is rejected with {@code 422}.
+     */
+    public StoredResponse execute(String key, String request, Object body, int status,
+            Supplier<EventResponseDTO> write) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request, body);
+        StoredResponse stored = lookup(key);
+        if (stored == null) {
+            try {
+                stored = record(key, requestHash, status, write);
+                cache.put(key, stored);
+                return stored;
+            } catch (ConstraintViolationException e) {
+                // Another request with this key committed first, unless the violation came from the write itself
+                stored = lookup(key);
+                if (stored == null) {
+                    throw e;
+                }
+            }
+        }
+        if (!stored.requestHash.equals(requestHash)) {
+            throw new ClientErrorException("Idempotency-Key was already used for a different request",
+                    UNPROCESSABLE_CONTENT);
+        }
+        return stored.replay();
+    }
+
+    @Transactional
+    StoredResponse record(String key, String requestHash, int status, Supplier<EventResponseDTO> write) {
+        EventResponseDTO result = write.get();
+        // An expired row the purge has not reached yet would otherwise block the key
+        IdempotencyRecord.delete("idempotencyKey = ?1 and expiresAt < ?2", key, LocalDateTime.now());
+
+        IdempotencyRecord row = new IdempotencyRecord();
+        row.idempotencyKey = key;
+        row.requestHash = requestHash;
+        row.status = status;
+        row.response = serialize(result);
+        row.version = result.version;
+        row.expiresAt = LocalDateTime.now().plus(ttl);
+        row.persist();
+        IdempotencyRecord.flush();
+        return new StoredResponse(row);
+    }
+
+    @Scheduled(every = "${events.idempotency.purge-interval:10m}", delayed = "${events.idempotency.purge-interval:10m}")
+    @Transactional
+    void purge() {
+        IdempotencyRecord.delete("expiresAt < ?1", LocalDateTime.now());
+    }
+
+    private StoredResponse lookup(String key) {
+        StoredResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        IdempotencyRecord row = IdempotencyRecord.findById(key);
+        if (row == null || row.expiresAt.isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        StoredResponse stored = new StoredResponse(row);
+        cache.put(key, stored);
+        return stored;
+    }
+
+    private String serialize(EventResponseDTO result) {
+        try {
+            return writer.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(String request, Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getBytes(StandardCharsets.UTF_8));
+            if (body != null) {
+                digest.update((byte) '\n');
+                digest.update(objectMapper.writeValueAsBytes(body));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Status, JSON body and version of a stored write, flagged when it answers a retry.
+     */
+    public static final class StoredResponse {
+
+        public final int status;
+        public final byte[] json;
+        public final long version;
+        public final boolean replayed;
+
+        final String requestHash;
+        final LocalDateTime expiresAt;
+
+        StoredResponse(IdempotencyRecord row) {
+            this(row.status, row.response.getBytes(StandardCharsets.UTF_8), row.version, false, row.requestHash,
+                    row.expiresAt);
+        }
+
+        private StoredResponse(int status, byte[] json, long version, boolean replayed, String requestHash,
+                LocalDateTime expiresAt) {
+            this.status = status;
+            this.json = json;
+            this.version = version;
+            this.replayed = replayed;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        StoredResponse replay() {
+            return new StoredResponse(status, json, version, true, requestHash, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.jboss.logging.Logger;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index for databases without full-text search (H2 in dev and test).
+ * Filled from the database at startup and kept current by committed {@link EventChange}s; a change older than
+ * the indexed version is ignored, so a late observer or the startup load can never bring back stale text.
+ * <p>
+ * Events get a new document number every time their text is indexed and the previous one is only marked dead,
+ * so posting lists stay append-only and sorted, which keeps multi-word queries a linear merge.
+ * Dead documents are dropped once they make up a quarter of the index.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "events.text-search.engine", stringValue = "memory", enableIfMissing = true)
+public class InMemoryEventTextIndex implements EventTextIndex {
+
+    private static final Logger LOG = Logger.getLogger(InMemoryEventTextIndex.class);
+
+    private static final int TITLE = 1;
+    private static final int LOCATION = 2;
+    private static final int DESCRIPTION = 4;
+
+    /**
+     * Score of a posting by the fields its word appears in, indexed by the field bit mask.
+     * Roughly the Postgres {@code ts_rank} weights for A, B and C.
+     */
+    private static final float[] FIELD_SCORES = new float[8];
+
+    static {
+        for (int fields = 1; fields < FIELD_SCORES.length; fields++) {
+            FIELD_SCORES[fields] = ((fields & TITLE) != 0 ? 1.0f : 0)
+                    + ((fields & LOCATION) != 0 ? 0.4f : 0)
+                    + ((fields & DESCRIPTION) != 0 ? 0.2f : 0);
+        }
+    }
+
+    private static final float PREFIX_MATCH = 0.5f;
+    private static final int MIN_PREFIX = 2;
+    private static final long DELETED = Long.MAX_VALUE;
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    @Inject
+    EventService eventService;
+
+    @Inject
+    StartupLoader startupLoader;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docsByEvent = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private long[] eventIds = new long[1024];
+    private long[] versions = new long[1024];
+    private int docCount;
+    private int deadCount;
+    private volatile boolean loaded;
+
+    void load(@Observes StartupEvent startup) {
+        startupLoader.load("event-text-index", () -> {
+            long start = System.nanoTime();
+            eventService.streamEvents(null, this::index);
+            loaded = true;
+            LOG.infof("Indexed %d events for text search in %d ms", size(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventChange change) {
+        switch (change.action) {
+            case CREATED, UPDATED -> index(change.event);
+            case DELETED, ARCHIVED -> remove(change.eventId);
+            case STATUS_CHANGED, SEATS_CHANGED -> {
+                // text is unchanged
+            }
+        }
+    }
+
+    public void index(EventResponseDTO event) {
+        lock.writeLock().lock();
+        try {
+            Integer current = docsByEvent.get(event.id);
+            if (current != null) {
+                if (versions[current] >= event.version) {
+                    return;
+                }
+                kill(current);
+            }
+            int doc = newDoc(event.id, event.version);
+
+            Map<String, Integer> words = new HashMap<>();
+            addWords(words, event.title, TITLE);
+            addWords(words, event.location, LOCATION);
+            addWords(words, event.description, DESCRIPTION);
+            words.forEach((word, fields) -> terms.computeIfAbsent(word, key -> new Postings()).add(doc, fields));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            Integer current = docsByEvent.get(eventId);
+            if (current != null) {
+                kill(current);
+                versions[current] = DELETED;
+            } else {
+                // Tombstone, in case the creation of this event is observed after its deletion
+                kill(newDoc(eventId, DELETED));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the rarest token's matches and gallops through the others to the same document, so a query costs
+     * about the size of its rarest word rather than of its most common one; scores go straight into a top-k heap.
+     * Ties go to the lower document number, so once the heap is full of scores no later document can exceed,
+     * the walk stops early.
+     */
+    @Override
+    public List<Long> search(List<String> tokens, int limit) {
+        if (!loaded) {
+            throw new ServiceUnavailableException("Text search index is still loading", RETRY_AFTER_SECONDS);
+        }
+        lock.readLock().lock();
+        try {
+            int live = docCount - deadCount;
+            TokenMatches[] lists = new TokenMatches[tokens.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = match(tokens.get(i));
+                if (lists[i].size == 0) {
+                    return List.of();
+                }
+                lists[i].idf = idf(live, lists[i].size);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(matches -> matches.size));
+
+            float bound = 0;
+            for (TokenMatches matches : lists) {
+                bound += matches.maxScore();
+            }
+
+            TopDocs top = new TopDocs(limit);
+            int[] positions = new int[lists.length];
+            candidates:
+            for (int driver = 0; driver < lists[0].size; driver++) {
+                if (top.isFull() && top.minScore() >= bound) {
+                    break;
+                }
+                int doc = lists[0].docs[driver];
+                if (dead.get(doc)) {
+                    continue;
+                }
+                float score = lists[0].score(driver);
+                for (int i = 1; i < lists.length; i++) {
+                    int position = lists[i].advance(positions[i], doc);
+                    positions[i] = position;
+                    if (position == lists[i].size) {
+                        break candidates;
+                    }
+                    if (lists[i].docs[position] != doc) {
+                        continue candidates;
+                    }
+                    score += lists[i].score(position);
+                }
+                top.offer(doc, score);
+            }
+            return top.eventIdsBestFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int newDoc(long eventId, long version) {
+        if (docCount == eventIds.length) {
+            eventIds = Arrays.copyOf(eventIds, docCount * 2);
+            versions = Arrays.copyOf(versions, docCount * 2);
+        }
+        int doc = docCount++;
+        eventIds[doc] = eventId;
+        versions[doc] = version;
+        docsByEvent.put(eventId, doc);
+        return doc;
+    }
+
+    private void kill(int doc) {
+        if (!dead.get(doc)) {
+            dead.set(doc);
+            deadCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount > 1024 && deadCount > docCount / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live documents densely and rewrites every posting list without the dead ones.
+     * Tombstones are forgotten here; by then no creation can still be in flight for them.
+     */
+    private void compact() {
+        int[] renumbered = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (dead.get(doc)) {
+                renumbered[doc] = -1;
+                if (docsByEvent.get(eventIds[doc]) == doc) {
+                    docsByEvent.remove(eventIds[doc]);
+                }
+            } else {
+                renumbered[doc] = live;
+                eventIds[live] = eventIds[doc];
+                versions[live] = versions[doc];
+                docsByEvent.put(eventIds[live], live);
+                live++;
+            }
+        }
+        for (Iterator<Postings> postings = terms.values().iterator(); postings.hasNext(); ) {
+            if (postings.next().renumber(renumbered) == 0) {
+                postings.remove();
+            }
+        }
+        LOG.debugf("Compacted text index from %d to %d documents", docCount, live);
+        docCount = live;
+        deadCount = 0;
+        dead.clear();
+    }
+
+    private TokenMatches match(String token) {
+        NavigableMap<String, Postings> words = token.length() >= MIN_PREFIX
+                ? terms.subMap(token, true, token + Character.MAX_VALUE, false)
+                : terms.subMap(token, true, token, true);
+        if (words.isEmpty()) {
+            return TokenMatches.NONE;
+        }
+        if (words.size() == 1) {
+            Map.Entry<String, Postings> word = words.firstEntry();
+            return TokenMatches.of(word.getValue(), word.getKey().equals(token) ? 1.0f : PREFIX_MATCH);
+        }
+        return TokenMatches.union(words, token);
+    }
+
+    private static float idf(int live, int matching) {
+        return (float) Math.log(1 + (double) live / matching);
+    }
+
+    private static void addWords(Map<String, Integer> words, String text, int field) {
+        for (String word : TextTokens.of(text)) {
+            words.merge(word, field, (fields, added) -> fields | added);
+        }
+    }
+
+    /**
+     * Documents containing one word, in document order, with the fields the word appears in.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+        private float maxScore;
+
+        void add(int doc, int field) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) field;
+            size++;
+            maxScore = Math.max(maxScore, FIELD_SCORES[field]);
+        }
+
+        int renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    fields[kept] = fields[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    /**
+     * Documents matching one query token, in document order: the posting list itself when the token is a single
+     * word, or the merged lists of every word it is a prefix of. Dead documents are skipped by the caller.
+     */
+    private static final class TokenMatches {
+
+        static final TokenMatches NONE = new TokenMatches(new int[0], 0, null, null, 0, 0);
+
+        final int[] docs;
+        final int size;
+        private final byte[] fields;
+        private final float[] scores;
+        private final float factor;
+        private final float maxRawScore;
+        float idf;
+
+        private TokenMatches(int[] docs, int size, byte[] fields, float[] scores, float factor, float maxRawScore) {
+            this.docs = docs;
+            this.size = size;
+            this.fields = fields;
+            this.scores = scores;
+            this.factor = factor;
+            this.maxRawScore = maxRawScore;
+        }
+
+        static TokenMatches of(Postings postings, float factor) {
+            return new TokenMatches(postings.docs, postings.size, postings.fields, null, factor, postings.maxScore);
+        }
+
+        /**
+         * Merges the posting lists of every word a prefix expands to, keeping the best score per document.
+         * Document and score are packed into one long so a single primitive sort orders them.
+         */
+        static TokenMatches union(NavigableMap<String, Postings> words, String token) {
+            int total = 0;
+            for (Postings postings : words.values()) {
+                total += postings.size;
+            }
+            long[] packed = new long[total];
+            int n = 0;
+            for (Map.Entry<String, Postings> word : words.entrySet()) {
+                float factor = word.getKey().equals(token) ? 1.0f : PREFIX_MATCH;
+                Postings postings = word.getValue();
+                for (int i = 0; i < postings.size; i++) {
+                    float score = FIELD_SCORES[postings.fields[i]] * factor;
+                    packed[n++] = ((long) postings.docs[i] << 32) | Float.floatToRawIntBits(score);
+                }
+            }
+            Arrays.sort(packed);
+
+            int[] docs = new int[n];
+            float[] scores = new float[n];
+            int size = 0;
+            float maxScore = 0;
+            for (int i = 0; i < n; i++) {
+                // Positive floats sort like their bits, so the last entry of a document has its best score
+                if (i + 1 < n && packed[i + 1] >>> 32 == packed[i] >>> 32) {
+                    continue;
+                }
+                docs[size] = (int) (packed[i] >>> 32);
+                scores[size] = Float.intBitsToFloat((int) packed[i]);
+                maxScore = Math.max(maxScore, scores[size]);
+                size++;
+            }
+            return new TokenMatches(docs, size, null, scores, 1.0f, maxScore);
+        }
+
+        float score(int position) {
+            return idf * (scores != null ? scores[position] : FIELD_SCORES[fields[position]] * factor);
+        }
+
+        /**
+         * Upper bound of {@link #score(int)}, computed the same way so the two compare exactly.
+         */
+        float maxScore() {
+            return idf * (scores != null ? maxRawScore : maxRawScore * factor);
+        }
+
+        /**
+         * First position at or after {@code from} whose document is not below {@code doc}, found by doubling
+         * the step and then bisecting, so both dense and sparse jumps are cheap.
+         */
+        int advance(int from, int doc) {
+            int low = from;
+            int step = 1;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (docs[middle] < doc) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best documents seen so far; ties go to the lower document number.
+     */
+    private final class TopDocs {
+
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        TopDocs(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(int doc, float score) {
+            if (size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                up(size++);
+            } else if (size > 0 && worse(docs[0], scores[0], doc, score)) {
+                docs[0] = doc;
+                scores[0] = score;
+                down(0);
+            }
+        }
+
+        boolean isFull() {
+            return size == docs.length;
+        }
+
+        float minScore() {
+            return scores[0];
+        }
+
+        List<Long> eventIdsBestFirst() {
+            Long[] ids = new Long[size];
+            while (size > 0) {
+                ids[size - 1] = eventIds[docs[0]];
+                swap(0, --size);
+                down(0);
+            }
+            return Arrays.asList(ids);
+        }
+
+        private boolean worse(int doc, float score, int otherDoc, float otherScore) {
+            return score < otherScore || (score == otherScore && doc > otherDoc);
+        }
+
+        private void up(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(docs[i], scores[i], docs[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void down(int i) {
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (worse(docs[child], scores[child], docs[worst], scores[worst])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int doc = docs[i];
+            docs[i] = docs[j];
+            docs[j] = doc;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Whether the current request may read from the replica. Nothing may until a request filter allows it, so
+ * scheduled jobs, consumers and every other request context read from the primary.
+ */
+@RequestScoped
+public class ReadConsistency {
+
+    private boolean replicaAllowed;
+
+    public void allowReplica() {
+        replicaAllowed = true;
+    }
+
+    public boolean replicaAllowed() {
+        return replicaAllowed;
+    }
+
+    void replicaAllowed(boolean allowed) {
+        replicaAllowed = allowed;
+    }
+}
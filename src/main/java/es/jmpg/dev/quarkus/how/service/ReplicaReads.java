@@ -0,0 +1,185 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.entity.Event;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.arc.Arc;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.TransactionManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends non-transactional reads to the {@code read} datasource, a replica with its own connection pool, so the
+ * primary's pool is left to writes and to the reads that must see them.
+ * A read goes to the replica only outside a transaction and when {@link ReadConsistency} allows it for the current
+ * request; everything else, including every read inside {@code @Transactional}, uses the primary. Replica reads run
+ * in a short-lived read-only session on a connection of their own, opened from the same session factory, so the
+ * same JPQL serves both. If no replica connection can be had, the read falls back to the primary.
+ */
+@ApplicationScoped
+public class ReplicaReads {
+
+    @ConfigProperty(name = "events.read-replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @Inject
+    @DataSource("read")
+    AgroalDataSource replica;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    TransactionManager transactionManager;
+
+    @Inject
+    ReadConsistency consistency;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Counter primaryReads;
+    private Counter replicaReads;
+
+    @PostConstruct
+    void registerMetrics() {
+        primaryReads = reads("primary");
+        replicaReads = reads("replica");
+    }
+
+    /**
+     * Runs {@code work} against the replica when the current read may use it, otherwise against the primary.
+     */
+    public <T> T read(Function<EntityManager, T> work) {
+        if (useReplica()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                replicaReads.increment();
+                try (Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+                    session.setDefaultReadOnly(true);
+                    session.setHibernateFlushMode(FlushMode.MANUAL);
+                    return work.apply(session);
+                } finally {
+                    close(connection);
+                }
+            }
+        }
+        primaryReads.increment();
+        return work.apply(Event.getEntityManager());
+    }
+
+    /**
+     * Like {@link #read}, for work that streams its rows through a cursor with a fetch size. PostgreSQL only honours
+     * the fetch size inside a transaction, so a replica connection runs the work with auto-commit off, and the
+     * primary in a transaction, joining the caller's if there is one.
+     */
+    public void stream(Consumer<EntityManager> work) {
+        if (useReplica()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                replicaReads.increment();
+                try (Session session = sessionFactory.withOptions().connection(connection).openSession()) {
+                    session.setDefaultReadOnly(true);
+                    session.setHibernateFlushMode(FlushMode.MANUAL);
+                    connection.setAutoCommit(false);
+                    work.accept(session);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not start a replica read", e);
+                } finally {
+                    endReadOnly(connection);
+                    close(connection);
+                }
+                return;
+            }
+        }
+        primaryReads.increment();
+        QuarkusTransaction.joiningExisting().run(() -> work.accept(Event.getEntityManager()));
+    }
+
+    /**
+     * Runs {@code reads} against the primary even where the request may use the replica, for results that outlive
+     * the request, such as cache entries, and so must not be older than the last committed change.
+     */
+    public <T> T onPrimary(Supplier<T> reads) {
+        if (!Arc.container().requestContext().isActive()) {
+            return reads.get();
+        }
+        boolean allowed = consistency.replicaAllowed();
+        consistency.replicaAllowed(false);
+        try {
+            return reads.get();
+        } finally {
+            consistency.replicaAllowed(allowed);
+        }
+    }
+
+    private boolean useReplica() {
+        return enabled
+                && !inTransaction()
+                && Arc.container().requestContext().isActive()
+                && consistency.replicaAllowed();
+    }
+
+    private boolean inTransaction() {
+        try {
+            return transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION;
+        } catch (SystemException e) {
+            return true;
+        }
+    }
+
+    private Connection replicaConnection() {
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            Log.warnf("Replica unavailable, reading from the primary: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    // Nothing was written, the rollback only ends the transaction before the connection goes back to the pool
+    private static void endReadOnly(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            Log.debugf(e, "Could not end a replica read");
+        }
+    }
+
+    // A session opened on a given connection leaves closing it to the caller
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            Log.debugf(e, "Could not return a replica connection to its pool");
+        }
+    }
+
+    private Counter reads(String datasource) {
+        return Counter.builder("events.reads")
+                .description("Non-transactional event reads by the datasource that served them")
+                .tag("datasource", datasource)
+                .register(registry);
+    }
+}
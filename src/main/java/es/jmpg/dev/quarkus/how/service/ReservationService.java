@@ -0,0 +1,211 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.dto.ReservationResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Books and releases seats on top of {@link SeatInventory}.
+ * In the default mode every booking is one conditional UPDATE. With write-behind enabled, bookings for an event
+ * are served from a {@link StripedSeatPool} that holds seats in the database a chunk at a time, and the seats it
+ * sold are booked in one UPDATE per event every flush interval. That trades {@code availableSeats} lagging by up
+ * to one interval for far fewer row-lock round-trips on hot on-sale events.
+ * Each flush renews the node's allotments. If the node dies, another node reclaims them once they expire; the
+ * sales of the node's last interval are lost with it and those seats can be sold again.
+ * Cancelled seats go back to the event's pool first, as far as they were sold from it and not flushed yet, since
+ * the database never booked those.
+ */
+@ApplicationScoped
+public class ReservationService {
+
+    @Inject
+    SeatInventory seatInventory;
+
+    @Inject
+    jakarta.enterprise.event.Event<EventChange> changes;
+
+    @ConfigProperty(name = "events.reservations.write-behind.enabled", defaultValue = "false")
+    boolean writeBehindEnabled;
+
+    @ConfigProperty(name = "events.reservations.write-behind.chunk-size", defaultValue = "50")
+    int chunkSize;
+
+    @ConfigProperty(name = "events.reservations.write-behind.stripes", defaultValue = "8")
+    int stripes;
+
+    @ConfigProperty(name = "events.reservations.write-behind.idle-timeout", defaultValue = "PT10S")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "events.reservations.write-behind.lease", defaultValue = "PT1M")
+    Duration lease;
+
+    private final String holder = UUID.randomUUID().toString();
+    private final Map<Long, StripedSeatPool> pools = new ConcurrentHashMap<>();
+    // Keeps cancellations out of the pools while their sales are being booked
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ReservationResponseDTO reserve(Long eventId, int seats) {
+        if (writeBehindEnabled) {
+            while (true) {
+                StripedSeatPool pool = pools.computeIfAbsent(eventId, id -> new StripedSeatPool(stripes));
+                if (pool.take(seats, missing -> refill(eventId, missing))) {
+                    return new ReservationResponseDTO(eventId, seats, null);
+                }
+                if (!pool.isClosed()) {
+                    throw notEnoughSeats(eventId);
+                }
+            }
+        }
+        if (!seatInventory.take(eventId, seats)) {
+            throw notEnoughSeats(eventId);
+        }
+        seatsChanged(eventId, seats);
+        return new ReservationResponseDTO(eventId, seats, seatInventory.availableSeats(eventId));
+    }
+
+    public ReservationResponseDTO cancel(Long eventId, int seats) {
+        if (!writeBehindEnabled) {
+            return give(eventId, seats, seats);
+        }
+        flushLock.lock();
+        try {
+            // Sales only add to sold() while no flush runs, so these seats are still part of it when given back
+            StripedSeatPool pool = pools.get(eventId);
+            int unflushed = pool != null ? Math.min(seats, pool.sold()) : 0;
+            ReservationResponseDTO released = unflushed < seats
+                    ? give(eventId, seats, seats - unflushed)
+                    : new ReservationResponseDTO(eventId, seats, null);
+            if (unflushed > 0) {
+                pool.giveBack(unflushed);
+            }
+            return released;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Books the seats sold since the last flush, renewing the allotments, and hands the seats pooled for events
+     * that stopped selling back to the database so other nodes can sell them. Then frees the allotments of nodes
+     * that stopped flushing.
+     */
+    @Scheduled(every = "${events.reservations.write-behind.flush-interval:5s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void flush() {
+        if (!writeBehindEnabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPools();
+        } finally {
+            flushLock.unlock();
+        }
+        int reclaimed = seatInventory.reclaimExpired(LocalDateTime.now());
+        if (reclaimed > 0) {
+            Log.infof("Reclaimed %d seats held by expired allotments", reclaimed);
+        }
+    }
+
+    private void flushPools() {
+        pools.forEach((eventId, pool) -> {
+            try {
+                if (pool.idleFor(idleTimeout.toNanos())) {
+                    pools.remove(eventId, pool);
+                    release(eventId, pool);
+                } else if (!flush(eventId, pool)) {
+                    Log.warnf("Allotment of event %d was reclaimed while in use, dropping its pooled seats", eventId);
+                    pools.remove(eventId, pool);
+                    pool.close();
+                }
+            } catch (RuntimeException e) {
+                Log.warnf(e, "Could not flush the seats sold for event %d, retrying next time", eventId);
+            }
+        });
+    }
+
+    void flushAllPools(@Observes ShutdownEvent event) {
+        flushLock.lock();
+        try {
+            pools.forEach((eventId, pool) -> {
+                try {
+                    release(eventId, pool);
+                } catch (RuntimeException e) {
+                    Log.warnf(e, "Could not release the seats held for event %d, they are reclaimed on expiry",
+                            eventId);
+                }
+            });
+            pools.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int refill(Long eventId, int missing) {
+        return seatInventory.hold(eventId, holder, Math.max(missing, chunkSize), missing, lease);
+    }
+
+    private boolean flush(Long eventId, StripedSeatPool pool) {
+        int sold = pool.sold();
+        boolean held = seatInventory.flush(eventId, holder, sold, lease);
+        pool.flushed(sold);
+        if (sold > 0) {
+            seatsChanged(eventId, sold);
+        }
+        return held;
+    }
+
+    private void release(Long eventId, StripedSeatPool pool) {
+        int unsold = pool.close();
+        int sold = pool.sold();
+        seatInventory.release(eventId, holder, sold, unsold);
+        pool.flushed(sold);
+        if (sold > 0) {
+            seatsChanged(eventId, sold);
+        }
+    }
+
+    /**
+     * Releases the {@code booked} seats of a cancellation of {@code seats} in the database.
+     */
+    private ReservationResponseDTO give(Long eventId, int seats, int booked) {
+        if (!seatInventory.give(eventId, booked)) {
+            requireEvent(eventId);
+            throw new ClientErrorException("Cannot release more seats than were reserved for event " + eventId,
+                    Response.Status.CONFLICT);
+        }
+        seatsChanged(eventId, -booked);
+        return new ReservationResponseDTO(eventId, seats, seatInventory.availableSeats(eventId));
+    }
+
+    private void seatsChanged(Long eventId, int seatsTaken) {
+        changes.fire(EventChange.seatsTaken(eventId, seatsTaken));
+    }
+
+    private ClientErrorException notEnoughSeats(Long eventId) {
+        requireEvent(eventId);
+        return new ClientErrorException("Not enough seats available for event " + eventId, Response.Status.CONFLICT);
+    }
+
+    private void requireEvent(Long eventId) {
+        if (Event.count("id", eventId) == 0) {
+            throw new NotFoundException("Event with id " + eventId + " not found");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.entity.SeatAllotment;
+import es.jmpg.dev.quarkus.how.metrics.DbTimed;
+import io.quarkus.logging.Log;
+import io.quarkus.panache.common.Parameters;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Seat counters are only ever changed with single conditional UPDATE statements, so the database row lock
+ * serializes concurrent bookings and {@code availableSeats} can never go below zero or above capacity.
+ * Nothing here reads a value and writes it back.
+ * Seats held for write-behind counters ({@code heldSeats}, one {@link SeatAllotment} per node) stay in
+ * {@code availableSeats} until their sale is flushed, but no booking or hold can take them.
+ */
+@DbTimed
+@ApplicationScoped
+public class SeatInventory {
+
+    @Transactional
+    public boolean take(Long eventId, int seats) {
+        return Event.update("availableSeats = availableSeats - :seats, updatedAt = :now, version = version + 1 "
+                        + "where id = :id and availableSeats - heldSeats >= :seats",
+                Parameters.with("seats", seats).and("now", LocalDateTime.now()).and("id", eventId)) == 1;
+    }
+
+    /**
+     * Holds {@code preferred} seats for the write-behind counter of {@code holder} if the event still has them,
+     * otherwise exactly {@code required}, and renews the holder's allotment until now + {@code lease}.
+     * Returns the number of seats held, or 0 when not even {@code required} are left.
+     */
+    @Transactional
+    public int hold(Long eventId, String holder, int preferred, int required, Duration lease) {
+        int seats = preferred > required && tryHold(eventId, preferred) ? preferred
+                : tryHold(eventId, required) ? required : 0;
+        if (seats == 0) {
+            return 0;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(lease);
+        if (SeatAllotment.update("seats = seats + ?1, expiresAt = ?2 where eventId = ?3 and holder = ?4",
+                seats, expiresAt, eventId, holder) == 0) {
+            SeatAllotment allotment = new SeatAllotment();
+            allotment.eventId = eventId;
+            allotment.holder = holder;
+            allotment.seats = seats;
+            allotment.expiresAt = expiresAt;
+            allotment.persist();
+        }
+        return seats;
+    }
+
+    /**
+     * Books {@code sold} seats that {@code holder} sold from its allotment since the last flush, in one UPDATE,
+     * and renews the allotment. Returns false when the allotment was reclaimed in the meantime: the sold seats are
+     * then booked from the seats nobody holds, if they are still there, and the holder no longer holds any.
+     */
+    @Transactional
+    public boolean flush(Long eventId, String holder, int sold, Duration lease) {
+        boolean held = SeatAllotment.update("seats = seats - ?1, expiresAt = ?2 where eventId = ?3 and holder = ?4",
+                sold, LocalDateTime.now().plus(lease), eventId, holder) == 1;
+        settle(eventId, sold, held ? sold : 0);
+        return held;
+    }
+
+    /**
+     * Books the seats {@code holder} sold since the last flush and gives the {@code unsold} rest of its allotment
+     * back to everyone.
+     */
+    @Transactional
+    public void release(Long eventId, String holder, int sold, int unsold) {
+        boolean held = SeatAllotment.delete("eventId = ?1 and holder = ?2", eventId, holder) == 1;
+        settle(eventId, sold, held ? sold + unsold : 0);
+    }
+
+    /**
+     * Frees the seats of allotments whose holder stopped renewing them. Sales the holder made after its last flush
+     * were never booked, so those seats become bookable again.
+     */
+    @Transactional
+    public int reclaimExpired(LocalDateTime now) {
+        int reclaimed = 0;
+        for (SeatAllotment allotment : SeatAllotment.<SeatAllotment>list("expiresAt < ?1", now)) {
+            // Skips allotments renewed since they were listed
+            if (SeatAllotment.delete("eventId = ?1 and holder = ?2 and expiresAt < ?3",
+                    allotment.eventId, allotment.holder, now) == 1) {
+                Event.update("heldSeats = heldSeats - ?1 where id = ?2", allotment.seats, allotment.eventId);
+                reclaimed += allotment.seats;
+            }
+        }
+        return reclaimed;
+    }
+
+    @Transactional
+    public boolean give(Long eventId, int seats) {
+        return Event.update("availableSeats = availableSeats + :seats, updatedAt = :now, version = version + 1 "
+                        + "where id = :id and availableSeats + :seats <= capacity",
+                Parameters.with("seats", seats).and("now", LocalDateTime.now()).and("id", eventId)) == 1;
+    }
+
+    /**
+     * Shifts capacity and available seats by the same delta, refusing changes that would leave
+     * fewer seats than are already sold or held.
+     */
+    @Transactional
+    public boolean resize(Long eventId, int delta) {
+        return Event.update("capacity = capacity + :delta, availableSeats = availableSeats + :delta, "
+                        + "updatedAt = :now, version = version + 1 "
+                        + "where id = :id and availableSeats + :delta >= heldSeats",
+                Parameters.with("delta", delta).and("now", LocalDateTime.now()).and("id", eventId)) == 1;
+    }
+
+    private boolean tryHold(Long eventId, int seats) {
+        return Event.update("heldSeats = heldSeats + ?1 where id = ?2 and availableSeats - heldSeats >= ?1",
+                seats, eventId) == 1;
+    }
+
+    /**
+     * Books {@code sold} seats and stops holding {@code released}. Seats sold from a reclaimed allotment are no
+     * longer held, so they are booked like any other booking. Holding seats changes nothing a reader sees, so only
+     * bookings bump the version.
+     */
+    private void settle(Long eventId, int sold, int released) {
+        if (sold > 0 && released == 0) {
+            if (!take(eventId, sold)) {
+                Log.errorf("Event %d was oversold by up to %d seats after its allotment was reclaimed", eventId, sold);
+            }
+        } else if (sold > 0) {
+            Event.update("availableSeats = availableSeats - :sold, heldSeats = heldSeats - :released, "
+                            + "updatedAt = :now, version = version + 1 where id = :id",
+                    Parameters.with("sold", sold).and("released", released).and("now", LocalDateTime.now())
+                            .and("id", eventId));
+        } else if (released > 0) {
+            Event.update("heldSeats = heldSeats - ?1 where id = ?2", released, eventId);
+        }
+    }
+
+    public Integer availableSeats(Long eventId) {
+        return Event.getEntityManager()
+                .createQuery("select e.availableSeats from Event e where e.id = :id", Integer.class)
+                .setParameter("id", eventId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+}
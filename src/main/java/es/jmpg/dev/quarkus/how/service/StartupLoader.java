@@ -0,0 +1,59 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Runs the table scans that fill the in-memory indexes at startup.
+ * By default they run inline, so the application only accepts requests once they are complete. With
+ * {@code events.startup.load-in-background} they run on their own thread after startup instead, retried until the
+ * database answers; each index reports itself unavailable until its scan has completed.
+ */
+@ApplicationScoped
+public class StartupLoader {
+
+    @ConfigProperty(name = "events.startup.load-in-background", defaultValue = "false")
+    boolean loadInBackground;
+
+    @ConfigProperty(name = "events.startup.retry-interval", defaultValue = "PT5S")
+    Duration retryInterval;
+
+    private volatile boolean stopping;
+
+    void shutdown(@Observes ShutdownEvent event) {
+        stopping = true;
+    }
+
+    public void load(String name, Runnable scan) {
+        if (!loadInBackground) {
+            scan.run();
+            return;
+        }
+        Thread.ofPlatform().name(name + "-load").daemon().start(() -> {
+            while (!stopping) {
+                try {
+                    run(scan);
+                    return;
+                } catch (RuntimeException e) {
+                    Log.warnf(e, "Loading %s failed, retrying in %s", name, retryInterval);
+                }
+                try {
+                    Thread.sleep(retryInterval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @ActivateRequestContext
+    void run(Runnable scan) {
+        scan.run();
+    }
+}
@@ -0,0 +1,157 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Node-local allotment of seats already held in the database for one hot event.
+ * Bookings decrement one of several independent counters with a CAS, so threads rarely contend on the
+ * same cache line; only when the allotment runs dry does a single thread go back to the database for more.
+ * Seats held here cannot be booked by other nodes until {@link #close()} hands them back, so they can never be
+ * sold twice. The pool also counts what it sold, so the sales can be reported to the database in batches.
+ */
+public final class StripedSeatPool {
+
+    private final AtomicInteger[] stripes;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    // Seats held in the database and not yet reported as sold; only changes under refillLock
+    private int held;
+    private volatile long lastUsedNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    public StripedSeatPool(int stripeCount) {
+        stripes = new AtomicInteger[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Takes seats from the pool, asking {@code refill} for more when the pooled seats are not enough.
+     * {@code refill} receives the number of seats still missing and returns how many the database granted,
+     * which may be more than requested (the surplus stays pooled) or 0 when the event is sold out.
+     * A closed pool never refills, callers seeing {@code false} on a closed pool should retry on a fresh one.
+     */
+    public boolean take(int seats, IntUnaryOperator refill) {
+        lastUsedNanos = System.nanoTime();
+        if (tryTake(seats)) {
+            return true;
+        }
+        refillLock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (tryTake(seats)) {
+                return true;
+            }
+            // Seats may be fragmented across stripes, consolidate before paying for a round-trip
+            int pooled = drain();
+            if (pooled < seats) {
+                int granted = refill.applyAsInt(seats - pooled);
+                held += granted;
+                pooled += granted;
+            }
+            if (pooled < seats) {
+                stripes[0].addAndGet(pooled);
+                return false;
+            }
+            stripes[0].addAndGet(pooled - seats);
+            return true;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Empties every stripe and returns the number of seats that were pooled.
+     */
+    private int drain() {
+        int total = 0;
+        for (AtomicInteger stripe : stripes) {
+            total += stripe.getAndSet(0);
+        }
+        return total;
+    }
+
+    /**
+     * Stops further refills and returns the seats that were still pooled, so they can be given back.
+     * The seats sold before are still reported by {@link #sold()}.
+     */
+    public int close() {
+        refillLock.lock();
+        try {
+            closed = true;
+            int unsold = drain();
+            held -= unsold;
+            return unsold;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Puts {@code seats} cancelled seats back into the pool, where they count as unsold again. They must be part of
+     * {@link #sold()}, and this must not run between {@link #sold()} and {@link #flushed(int)}, or they would be
+     * booked in the database as sold too.
+     */
+    public void giveBack(int seats) {
+        stripes[0].addAndGet(seats);
+    }
+
+    /**
+     * Returns the seats sold and not yet reported with {@link #flushed(int)}. Stripes only shrink outside the
+     * refill lock, so a sale racing with this call is either counted or left for the next one.
+     */
+    public int sold() {
+        refillLock.lock();
+        try {
+            return held - pooled();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Records that {@code sold} seats, as returned by {@link #sold()}, were booked in the database.
+     */
+    public void flushed(int sold) {
+        refillLock.lock();
+        try {
+            held -= sold;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int pooled() {
+        int total = 0;
+        for (AtomicInteger stripe : stripes) {
+            total += stripe.get();
+        }
+        return total;
+    }
+
+    public boolean idleFor(long nanos) {
+        return System.nanoTime() - lastUsedNanos >= nanos;
+    }
+
+    private boolean tryTake(int seats) {
+        int start = (int) (Thread.currentThread().threadId() % stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            AtomicInteger stripe = stripes[(start + i) % stripes.length];
+            int current;
+            while ((current = stripe.get()) >= seats) {
+                if (stripe.compareAndSet(current, current - seats)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package es.jmpg.dev.quarkus.how.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case runs of letters and digits, the same words the Postgres {@code simple}
+ * text search configuration produces, so both search engines match the same terms.
+ */
+public final class TextTokens {
+
+    private TextTokens() {
+    }
+
+    public static List<String> of(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,153 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every statement waits {@code load.db-latency}, standing in for a slow database, against fixed limits of four
+ * reads and four writes, of which lists may take two.
+ */
+@QuarkusTest
+@TestProfile(AdmissionControlTest.SlowDatabase.class)
+public class AdmissionControlTest {
+
+    private static final int LISTS = 10;
+    private static final int WRITES = 3;
+
+    public static class SlowDatabase implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                    Map.entry("load.db-latency", "PT0.3S"),
+                    Map.entry("events.cache.enabled", "false"),
+                    Map.entry("events.admission.read.initial-limit", "4"),
+                    Map.entry("events.admission.read.min-limit", "4"),
+                    Map.entry("events.admission.read.max-limit", "4"),
+                    Map.entry("events.admission.write.initial-limit", "4"),
+                    Map.entry("events.admission.write.min-limit", "4"),
+                    Map.entry("events.admission.write.max-limit", "4"),
+                    Map.entry("events.admission.list-share", "0.5"));
+        }
+    }
+
+    @Test
+    public void testListsOverTheirShareAreShedWithRetryAfter() throws Exception {
+        List<Response> responses = concurrently(LISTS, AdmissionControlTest::listPage);
+
+        long shed = 0;
+        for (Response response : responses) {
+            if (response.statusCode() == 503) {
+                assertEquals("1", response.header("Retry-After"));
+                shed++;
+            } else {
+                assertEquals(200, response.statusCode());
+            }
+        }
+        assertTrue(shed > 0, "Expected lists to be shed");
+        assertTrue(shed < LISTS, "Expected lists within their share to be served");
+    }
+
+    @Test
+    public void testWritesAndSingleReadsAreServedWhileListsAreShed() throws Exception {
+        int eventId = create("Admitted " + UUID.randomUUID()).path("id");
+
+        List<Callable<Response>> calls = new ArrayList<>();
+        for (int i = 0; i < LISTS; i++) {
+            calls.add(AdmissionControlTest::listPage);
+        }
+        for (int i = 0; i < WRITES; i++) {
+            calls.add(() -> create("Admitted " + UUID.randomUUID()));
+        }
+        calls.add(() -> given().when().get("/api/events/" + eventId));
+        List<Response> responses = concurrently(calls);
+
+        long listsShed = responses.subList(0, LISTS).stream().filter(r -> r.statusCode() == 503).count();
+        assertTrue(listsShed > 0, "Expected lists to be shed");
+        for (Response write : responses.subList(LISTS, LISTS + WRITES)) {
+            assertEquals(201, write.statusCode(), write.asString());
+        }
+        assertEquals(200, responses.get(LISTS + WRITES).statusCode());
+    }
+
+    @Test
+    public void testLimitsAndRejectionsAreExported() throws Exception {
+        concurrently(LISTS, AdmissionControlTest::listPage);
+
+        given()
+                .when().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("events_admission_limit{budget=\"read\"} 4.0"))
+                .body(containsString("events_admission_limit{budget=\"write\"} 4.0"))
+                .body(containsString("events_admission_inflight{budget=\"read\"}"))
+                .body(containsString("events_admission_rejected_total{budget=\"read\",request=\"list\"}"));
+    }
+
+    private static Response listPage() {
+        return given().queryParam("limit", 5).when().get("/api/events");
+    }
+
+    private static Response create(String title) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "Written while the database is slow",
+                    "location": "Overflow Hall",
+                    "startDate": "2034-05-01T10:00:00",
+                    "endDate": "2034-05-01T12:00:00",
+                    "capacity": 40
+                }
+                """.formatted(title);
+        return given().contentType(ContentType.JSON).body(eventJson).when().post("/api/events");
+    }
+
+    private static List<Response> concurrently(int count, Callable<Response> call) throws Exception {
+        List<Callable<Response>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(call);
+        }
+        return concurrently(calls);
+    }
+
+    private static List<Response> concurrently(List<Callable<Response>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (Callable<Response> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<Response> responses = new ArrayList<>();
+            for (Future<Response> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Starts with the in-memory indexes filled in the background, as the fast-start profile does.
+ */
+@QuarkusTest
+@TestProfile(BackgroundStartupTest.BackgroundLoading.class)
+public class BackgroundStartupTest {
+
+    public static class BackgroundLoading implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("events.startup.load-in-background", "true");
+        }
+    }
+
+    @Test
+    public void testStatsAnswerOnceLoaded() throws InterruptedException {
+        awaitLoaded("/api/events/stats");
+    }
+
+    @Test
+    public void testSearchAnswersOnceLoaded() throws InterruptedException {
+        awaitLoaded("/api/events/search/text?q=conference");
+    }
+
+    private void awaitLoaded(String path) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        Response response = given().when().get(path);
+        while (response.statusCode() == 503 && System.nanoTime() < deadline) {
+            assertNotNull(response.header("Retry-After"));
+            Thread.sleep(50);
+            response = given().when().get(path);
+        }
+        assertEquals(200, response.statusCode());
+    }
+}
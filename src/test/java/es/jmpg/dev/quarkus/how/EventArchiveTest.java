@@ -0,0 +1,232 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.kafka.OutboxRelay;
+import es.jmpg.dev.quarkus.how.service.EventArchiver;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs in its own application so archive runs at simulated dates cannot move the events other tests rely on.
+ */
+@QuarkusTest
+@TestProfile(EventArchiveTest.SmallBatches.class)
+public class EventArchiveTest {
+
+    public static class SmallBatches implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("events.archive.batch-size", "2");
+        }
+    }
+
+    @Inject
+    EventArchiver archiver;
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    public void testMovesOldTerminalEventsToTheArchive() {
+        InMemorySink<String> sink = connector.sink("event-changes");
+        int completed = createEvent("2042-01-01T10:00:00", "2042-01-01T12:00:00", "COMPLETED");
+        int cancelled = createEvent("2042-01-02T10:00:00", "2042-01-02T12:00:00", "CANCELLED");
+        int other = createEvent("2042-01-03T10:00:00", "2042-01-03T12:00:00", "COMPLETED");
+        int recent = createEvent("2042-02-20T10:00:00", "2042-02-20T12:00:00", "COMPLETED");
+        int scheduled = createEvent("2042-01-01T10:00:00", "2042-01-01T12:00:00", null);
+        // Cached before it is archived
+        given().when().get("/api/events/" + completed).then().statusCode(200);
+
+        assertTrue(archiver.archive(LocalDateTime.parse("2042-03-01T00:00:00")) >= 3);
+
+        for (int id : List.of(completed, cancelled, other)) {
+            given().when().get("/api/events/" + id).then().statusCode(404);
+        }
+        given().when().get("/api/events/" + recent).then().statusCode(200);
+        given().when().get("/api/events/" + scheduled).then().statusCode(200);
+
+        given()
+                .queryParam("archived", true)
+                .when().get("/api/events/" + completed)
+                .then()
+                .statusCode(200)
+                .body("title", is("Archive Event"))
+                .body("status", is("COMPLETED"))
+                .body("version", is(1));
+
+        given()
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(200)
+                .body("id", not(hasItem(completed)))
+                .body("id", hasItem(recent));
+        given()
+                .queryParam("archived", true)
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(200)
+                .body("id", hasItems(completed, other))
+                .body("id", not(hasItem(recent)));
+        given()
+                .queryParam("archived", true)
+                .queryParam("limit", 1)
+                .when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(1))
+                .body("next", notNullValue());
+
+        outboxRelay.publishBatch();
+        long archivedMessages = sink.received().stream()
+                .map(message -> JsonPath.from(message.getPayload()))
+                .filter(payload -> "ARCHIVED".equals(payload.getString("action")))
+                .filter(payload -> List.of(completed, cancelled, other).contains(payload.getInt("id")))
+                .count();
+        assertEquals(3, archivedMessages);
+
+        given()
+                .when().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("events_archive_archived_total"));
+    }
+
+    @Test
+    public void testArchiveRunIsIdempotent() {
+        int eventId = createEvent("2043-01-01T10:00:00", "2043-01-01T12:00:00", "CANCELLED");
+
+        assertTrue(archiver.archive(LocalDateTime.parse("2043-03-01T00:00:00")) >= 1);
+        assertEquals(0, archiver.archive(LocalDateTime.parse("2043-03-01T00:00:00")));
+
+        given().queryParam("archived", true).when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("status", is("CANCELLED"));
+    }
+
+    @Test
+    public void testReingestedArchivedEventStaysArchived() throws Exception {
+        long upstreamId = 7_000_000_001L;
+        ingest(ingestedMessage(upstreamId, "Ingested then archived", "2044-01-01T10:00:00"));
+        long eventId = eventId(upstreamId);
+
+        assertTrue(archiver.archive(LocalDateTime.parse("2044-03-01T00:00:00")) >= 1);
+        ingest(ingestedMessage(upstreamId, "Replayed after archiving", "2044-01-01T11:00:00"));
+
+        given().when().get("/api/events/" + eventId).then().statusCode(404);
+        given().queryParam("archived", true).when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Ingested then archived"));
+        assertEquals(0, archiver.archive(LocalDateTime.parse("2044-03-01T00:00:00")));
+    }
+
+    /**
+     * Sends one record to the ingest channel and waits until its batch is committed.
+     */
+    private void ingest(String record) throws Exception {
+        InMemorySource<Message<List<String>>> source = connector.source("event-ingest");
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        source.send(Message.of(List.of(record))
+                .withAck(() -> {
+                    acked.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(failure -> {
+                    acked.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        acked.get(10, TimeUnit.SECONDS);
+    }
+
+    private static String ingestedMessage(long upstreamId, String title, String timestamp) {
+        return """
+                {
+                    "id": %d,
+                    "title": "%s",
+                    "location": "Upstream Hall",
+                    "startDate": "2044-01-01T10:00:00",
+                    "endDate": "2044-01-01T12:00:00",
+                    "capacity": 10,
+                    "status": "COMPLETED",
+                    "timestamp": "%s",
+                    "action": "UPDATED"
+                }
+                """.formatted(upstreamId, title, timestamp);
+    }
+
+    private long eventId(long upstreamId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT eventId FROM event_sources WHERE externalId = ?")) {
+            statement.setLong(1, upstreamId);
+            try (ResultSet rows = statement.executeQuery()) {
+                assertTrue(rows.next());
+                return rows.getLong(1);
+            }
+        }
+    }
+
+    private int createEvent(String startDate, String endDate, String status) {
+        String eventJson = """
+                {
+                    "title": "Archive Event",
+                    "description": "Moved by the archive job",
+                    "location": "Test Location",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": 10
+                }
+                """.formatted(startDate, endDate);
+
+        int id = given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+        if (status != null) {
+            given().queryParam("status", status).when().patch("/api/events/" + id + "/status")
+                    .then().statusCode(200);
+        }
+        return id;
+    }
+}
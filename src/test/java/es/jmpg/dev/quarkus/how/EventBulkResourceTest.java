@@ -0,0 +1,202 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.hasSize;
+
+@QuarkusTest
+public class EventBulkResourceTest {
+
+    @Test
+    public void testBulkCreateFromArrayAcrossChunks() {
+        String body = IntStream.range(0, 120)
+                .mapToObj(i -> event("Bulk Event " + i, 10))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("created", is(120))
+                .body("failed", is(0))
+                .body("items", hasSize(120))
+                .body("items.status", everyItem(is("CREATED")))
+                .body("items.id", everyItem(notNullValue()))
+                .body("items[119].index", is(119));
+    }
+
+    @Test
+    public void testBulkCreateFromNdjsonPerChunk() {
+        String body = String.join("\n",
+                event("Line One", 5),
+                event("", 5),
+                event("Line Three", 5)) + "\n";
+
+        given()
+                .contentType("application/x-ndjson")
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("created", is(2))
+                .body("failed", is(1))
+                .body("items[0].status", is("CREATED"))
+                .body("items[1].status", is("INVALID"))
+                .body("items[1].errors[0]", is("title: Event title is required"))
+                .body("items[2].status", is("CREATED"));
+    }
+
+    @Test
+    public void testBulkCreateAllOrNothingRejectsEveryItem() {
+        String body = "[" + event("Valid", 5) + "," + event("Invalid", 0) + "]";
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("mode", "all-or-nothing")
+                .body(body)
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("created", is(0))
+                .body("items[0].status", is("SKIPPED"))
+                .body("items[1].status", is("INVALID"));
+    }
+
+    @Test
+    public void testBulkUpdate() {
+        int first = createEvent("To Update A");
+        int second = createEvent("To Update B");
+
+        String body = "[" + update(first, "Updated A", 40) + "," + update(999999, "Missing", 10) + ","
+                + update(second, "Updated B", 10) + "]";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when().put("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", is(2))
+                .body("items[1].status", is("NOT_FOUND"));
+
+        given()
+                .when().get("/api/events/" + first)
+                .then()
+                .statusCode(200)
+                .body("title", is("Updated A"))
+                .body("capacity", is(40))
+                .body("availableSeats", is(40));
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("mode", "all-or-nothing")
+                .body("[" + update(second, "Renamed B", 10) + "," + update(999999, "Missing", 10) + "]")
+                .when().put("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", is(0))
+                .body("items[0].status", is("SKIPPED"))
+                .body("items[1].status", is("NOT_FOUND"));
+
+        given()
+                .when().get("/api/events/" + second)
+                .then()
+                .statusCode(200)
+                .body("title", is("Updated B"));
+    }
+
+    @Test
+    public void testBulkUpdateResizesRepeatedIdsAndLeavesFailedItemsAlone() {
+        int resized = createEvent("Resized Twice");
+        int shrunk = createEvent("Shrunk Too Far");
+        reserve(resized, 5);
+        reserve(shrunk, 5);
+        int version = given().when().get("/api/events/" + shrunk).then().extract().path("version");
+
+        String body = "[" + update(resized, "Resized Once", 30) + "," + update(resized, "Resized Twice", 25) + ","
+                + update(shrunk, "Shrunk", 3) + "]";
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when().put("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", is(2))
+                .body("items[2].status", is("CONFLICT"));
+
+        given()
+                .when().get("/api/events/" + resized)
+                .then()
+                .statusCode(200)
+                .body("title", is("Resized Twice"))
+                .body("capacity", is(25))
+                .body("availableSeats", is(20));
+
+        given()
+                .when().get("/api/events/" + shrunk)
+                .then()
+                .statusCode(200)
+                .body("title", is("Shrunk Too Far"))
+                .body("version", is(version));
+    }
+
+    @Test
+    public void testBulkRejectsMalformedBody() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"title\": ")
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(400);
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("mode", "sometimes")
+                .body("[" + event("Valid", 5) + "]")
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(400);
+    }
+
+    private int createEvent(String title) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(event(title, 20))
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private static void reserve(int eventId, int seats) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": " + seats + "}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(201);
+    }
+
+    private static String event(String title, int capacity) {
+        return """
+                {"title": "%s", "description": "Bulk loaded", "location": "Hall", \
+                "startDate": "2027-03-01T10:00:00", "endDate": "2027-03-01T18:00:00", "capacity": %d}"""
+                .formatted(title, capacity);
+    }
+
+    private static String update(int id, String title, int capacity) {
+        return "{\"id\": " + id + ", " + event(title, capacity).substring(1);
+    }
+}
@@ -0,0 +1,130 @@
+package es.jmpg.dev.quarkus.how;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import es.jmpg.dev.quarkus.how.dto.EventPageDTO;
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class EventEncodingTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+    private static final TypeReference<List<EventResponseDTO>> EVENT_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<EventPageDTO> EVENT_PAGE = new TypeReference<>() {
+    };
+
+    @Test
+    public void testPageAsSmile() throws IOException {
+        EventPageDTO json = decode(JsonMapper.builder(), list("/api/events?limit=5", "application/json"), EVENT_PAGE);
+
+        Response smile = list("/api/events?limit=5", SMILE);
+        assertTrue(smile.header("Vary").contains("Accept"));
+        EventPageDTO decoded = decode(SmileMapper.builder(), smile, EVENT_PAGE);
+
+        assertSameEvents(json.items, decoded.items);
+        assertEquals(json.next, decoded.next);
+    }
+
+    @Test
+    public void testStreamedListAsCbor() throws IOException {
+        List<EventResponseDTO> json = decode(JsonMapper.builder(), list("/api/events/status/SCHEDULED", "*/*"),
+                EVENT_LIST);
+        List<EventResponseDTO> decoded = decode(CBORMapper.builder(), list("/api/events/status/SCHEDULED", CBOR),
+                EVENT_LIST);
+
+        assertSameEvents(json, decoded);
+    }
+
+    @Test
+    public void testEachEncodingHasItsOwnETag() {
+        String jsonTag = list("/api/events", "application/json").header("ETag");
+        String smileTag = list("/api/events", SMILE).header("ETag");
+        assertNotEquals(jsonTag, smileTag);
+
+        given().accept(SMILE).header("If-None-Match", smileTag)
+                .when().get("/api/events")
+                .then().statusCode(304);
+        given().accept(SMILE).header("If-None-Match", jsonTag)
+                .when().get("/api/events")
+                .then().statusCode(200);
+    }
+
+    @Test
+    public void testUnsupportedEncodingIsRejected() {
+        given().accept("application/xml")
+                .when().get("/api/events")
+                .then().statusCode(406);
+    }
+
+    @Test
+    public void testLargeResponsesAreCompressed() {
+        assertEquals("gzip", given().header("Accept-Encoding", "gzip")
+                .when().get("/api/events")
+                .then().statusCode(200)
+                .extract().header("Content-Encoding"));
+        assertEquals("br", given().header("Accept-Encoding", "br")
+                .when().get("/api/events/status/SCHEDULED")
+                .then().statusCode(200)
+                .extract().header("Content-Encoding"));
+    }
+
+    @Test
+    public void testSmallResponsesAreNotCompressed() {
+        String encoding = given().header("Accept-Encoding", "gzip")
+                .when().get("/api/events/1")
+                .then().statusCode(200)
+                .extract().header("Content-Encoding");
+        assertTrue(encoding == null || encoding.equals("identity"), encoding);
+    }
+
+    private static Response list(String path, String accept) {
+        Response response = given().accept(accept).when().get(path);
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    private static <T> T decode(
+            MapperBuilder<?, ?> builder, Response response, TypeReference<T> type) throws IOException {
+        ObjectMapper mapper = builder.findAndAddModules().build();
+        String contentType = response.contentType();
+        if (mapper instanceof SmileMapper) {
+            assertEquals(SMILE, contentType);
+        } else if (mapper instanceof CBORMapper) {
+            assertEquals(CBOR, contentType);
+        } else {
+            assertTrue(contentType.startsWith("application/json"), contentType);
+        }
+        return mapper.readValue(response.asByteArray(), type);
+    }
+
+    private static void assertSameEvents(List<EventResponseDTO> expected, List<EventResponseDTO> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertFalse(expected.isEmpty());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).id, actual.get(i).id);
+            assertEquals(expected.get(i).title, actual.get(i).title);
+            assertEquals(expected.get(i).location, actual.get(i).location);
+            assertEquals(expected.get(i).startDate, actual.get(i).startDate);
+            assertEquals(expected.get(i).updatedAt, actual.get(i).updatedAt);
+            assertEquals(expected.get(i).status, actual.get(i).status);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The export cursor against PostgreSQL, where its filters on {@code startDate} prune the partitions of events.
+ */
+@QuarkusTest
+@TestProfile(PostgresDatabase.class)
+public class EventExportPostgresTest {
+
+    @Test
+    public void testExportsFilteredNdjsonAndCsv() {
+        int scheduled = createEvent("Export scheduled", "2071-03-01T10:00:00");
+        int cancelled = createEvent("Export cancelled", "2071-03-02T10:00:00");
+        createEvent("Export later", "2071-04-01T10:00:00");
+        given().queryParam("status", "CANCELLED").when().patch("/api/events/" + cancelled + "/status")
+                .then().statusCode(200);
+
+        String ndjson = given()
+                .queryParam("from", "2071-03-01T00:00:00")
+                .queryParam("to", "2071-04-01T00:00:00")
+                .when().get("/api/events/export")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        List<JsonPath> rows = ndjson.lines().map(JsonPath::from).toList();
+        assertEquals(2, rows.size());
+        assertEquals(scheduled, rows.get(0).getInt("id"));
+        assertEquals("2071-03-01T10:00:00", rows.get(0).getString("startDate"));
+        assertEquals(20, rows.get(0).getInt("availableSeats"));
+        assertEquals(cancelled, rows.get(1).getInt("id"));
+        assertEquals("CANCELLED", rows.get(1).getString("status"));
+
+        String csv = given()
+                .queryParam("format", "csv")
+                .queryParam("status", "scheduled")
+                .queryParam("from", "2071-03-01T00:00:00")
+                .queryParam("to", "2071-04-01T00:00:00")
+                .when().get("/api/events/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .extract().asString();
+        String[] lines = csv.split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith(scheduled + ",Export scheduled,Exported,Export Hall,"
+                + "2071-03-01T10:00:00,2071-03-01T12:00:00,20,20,SCHEDULED,"), lines[1]);
+    }
+
+    private static int createEvent(String title, String startDate) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "Exported",
+                    "location": "Export Hall",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": 20
+                }
+                """.formatted(title, startDate, startDate.replace("T10:", "T12:"));
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
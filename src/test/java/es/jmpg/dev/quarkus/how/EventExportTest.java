@@ -0,0 +1,209 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a database of its own, since one test fills it with a million rows: an H2 file database, so the rows
+ * live on disk rather than in the heap being measured. H2 only streams a result with lazy query execution; without
+ * it, it materializes the result first, which PostgreSQL avoids with the cursor.
+ */
+@QuarkusTest
+@TestProfile(EventExportTest.ExportDatabase.class)
+public class EventExportTest {
+
+    private static final int LARGE_EXPORT_ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    public static class ExportDatabase implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            String url = "jdbc:h2:file:./build/h2/exportdb;CASE_INSENSITIVE_IDENTIFIERS=TRUE;LAZY_QUERY_EXECUTION=TRUE";
+            return Map.of(
+                    "quarkus.datasource.jdbc.url", url,
+                    "quarkus.datasource.read.jdbc.url", url);
+        }
+    }
+
+    @TestHTTPResource("/api/events/export")
+    URI exportUri;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    public void testExportsFilteredNdjsonAndCsv() {
+        int scheduled = createEvent("Export, \"quoted\"", "2071-03-01T10:00:00");
+        int cancelled = createEvent("Export cancelled", "2071-03-02T10:00:00");
+        int later = createEvent("Export later", "2071-04-01T10:00:00");
+        given().queryParam("status", "CANCELLED").when().patch("/api/events/" + cancelled + "/status")
+                .then().statusCode(200);
+
+        String ndjson = given()
+                .queryParam("from", "2071-03-01T00:00:00")
+                .queryParam("to", "2071-04-01T00:00:00")
+                .when().get("/api/events/export")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        List<JsonPath> rows = ndjson.lines().map(JsonPath::from).toList();
+        assertEquals(2, rows.size());
+        assertEquals(scheduled, rows.get(0).getInt("id"));
+        assertEquals("Export, \"quoted\"", rows.get(0).getString("title"));
+        assertEquals("2071-03-01T10:00:00", rows.get(0).getString("startDate"));
+        assertEquals("SCHEDULED", rows.get(0).getString("status"));
+        assertEquals(20, rows.get(0).getInt("availableSeats"));
+        assertEquals(cancelled, rows.get(1).getInt("id"));
+        assertEquals("CANCELLED", rows.get(1).getString("status"));
+        assertEquals(1, rows.get(1).getInt("version"));
+
+        String csv = given()
+                .queryParam("format", "csv")
+                .queryParam("status", "scheduled")
+                .queryParam("from", "2071-01-01T00:00:00")
+                .queryParam("to", "2072-01-01T00:00:00")
+                .when().get("/api/events/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .header("Content-Disposition", containsString("events.csv"))
+                .extract().asString();
+        String[] lines = csv.split("\r\n");
+        assertEquals("id,title,description,location,startDate,endDate,capacity,availableSeats,status,createdAt,"
+                + "updatedAt,version", lines[0]);
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith(scheduled + ",\"Export, \"\"quoted\"\"\",Exported,Export Hall,"
+                + "2071-03-01T10:00:00,2071-03-01T12:00:00,20,20,SCHEDULED,"), lines[1]);
+        assertTrue(lines[2].startsWith(later + ",Export later,"), lines[2]);
+    }
+
+    @Test
+    public void testResumesAfterTheLastIdAndRejectsBadParameters() {
+        int first = createEvent("Export resumed 1", "2072-01-01T10:00:00");
+        int second = createEvent("Export resumed 2", "2072-01-02T10:00:00");
+
+        given()
+                .queryParam("from", "2072-01-01T00:00:00")
+                .queryParam("to", "2073-01-01T00:00:00")
+                .queryParam("after", first)
+                .when().get("/api/events/export")
+                .then()
+                .statusCode(200)
+                .body(containsString("\"id\":" + second))
+                .body(containsString("Export resumed 2"))
+                .body(not(containsString("Export resumed 1")));
+
+        given().queryParam("format", "xml").when().get("/api/events/export").then().statusCode(400);
+        given().queryParam("status", "LOST").when().get("/api/events/export").then().statusCode(400);
+        given().queryParam("from", "yesterday").when().get("/api/events/export").then().statusCode(400);
+    }
+
+    /**
+     * Exports a million rows while sampling the heap after a full collection; the server and this client share the
+     * JVM, so anything the export accumulated per row would show up as growth.
+     */
+    @Test
+    public void testHeapStaysFlatWhileExportingAMillionRows() throws Exception {
+        insertRows(LARGE_EXPORT_ROWS);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeap(memory);
+        long peak = baseline;
+        long exported = 0;
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(exportUri + "?from=2080-01-01T00:00:00")).build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                exported++;
+                if (exported % 200_000 == 0) {
+                    peak = Math.max(peak, usedHeap(memory));
+                    assertTrue(line.startsWith("{\"id\":"), line);
+                }
+            }
+        }
+
+        assertEquals(LARGE_EXPORT_ROWS, exported);
+        long growth = peak - baseline;
+        assertTrue(growth < MAX_HEAP_GROWTH, () -> "Heap grew by " + growth / (1024 * 1024) + " MB");
+    }
+
+    private void insertRows(int count) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int start = 1; start <= count; start += 100_000) {
+                statement.executeUpdate("INSERT INTO events (id, title, description, location, startDate, endDate, "
+                        + "capacity, availableSeats, status, createdAt, updatedAt, version) "
+                        + "SELECT 100000000 + X, 'Exported ' || X, 'Bulk export', 'Hall ' || MOD(X, 50), "
+                        + "TIMESTAMP '2080-01-01 10:00:00' + X * INTERVAL '1' MINUTE, "
+                        + "TIMESTAMP '2080-01-01 11:00:00' + X * INTERVAL '1' MINUTE, 100, 100, 'SCHEDULED', "
+                        + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0 "
+                        + "FROM SYSTEM_RANGE(" + start + ", " + (start + 99_999) + ")");
+            }
+        }
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            System.gc();
+            samples[i] = memory.getHeapMemoryUsage().getUsed();
+        }
+        return Arrays.stream(samples).min().orElseThrow();
+    }
+
+    private static int createEvent(String title, String startDate) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "Exported",
+                    "location": "Export Hall",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": 20
+                }
+                """.formatted(title.replace("\"", "\\\""), startDate, startDate.replace("T10:", "T12:"));
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
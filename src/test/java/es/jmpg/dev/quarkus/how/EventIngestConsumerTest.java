@@ -0,0 +1,213 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QuarkusTest
+public class EventIngestConsumerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2035, 1, 1, 9, 0);
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    public void testBatchCreatesAndUpdatesKeyedById() throws Exception {
+        long id = newId();
+        long other = newId();
+
+        ingest(List.of(
+                message(id, "First title", 100, T0, "CREATED"),
+                message(id, "Second title", 120, T0.plusSeconds(1), "UPDATED"),
+                message(other, "Other event", 50, T0, "CREATED")));
+
+        given().when().get("/api/events/" + eventId(id))
+                .then()
+                .statusCode(200)
+                .body("title", is("Second title"))
+                .body("capacity", is(120))
+                .body("availableSeats", is(120));
+        given().when().get("/api/events/" + eventId(other))
+                .then()
+                .statusCode(200)
+                .body("title", is("Other event"));
+
+        ingest(List.of(message(id, "Third title", 150, T0.plusSeconds(2), "UPDATED")));
+
+        given().when().get("/api/events/" + eventId(id))
+                .then()
+                .statusCode(200)
+                .body("title", is("Third title"))
+                .body("availableSeats", is(150))
+                .body("version", is(1));
+    }
+
+    @Test
+    public void testStaleMessagesAreDropped() throws Exception {
+        long id = newId();
+        ingest(List.of(message(id, "Current", 80, T0.plusMinutes(5), "CREATED")));
+
+        ingest(List.of(
+                message(id, "Replayed", 80, T0.plusMinutes(5), "UPDATED"),
+                message(id, "Older", 90, T0.plusMinutes(1), "UPDATED")));
+
+        given().when().get("/api/events/" + eventId(id))
+                .then()
+                .statusCode(200)
+                .body("title", is("Current"))
+                .body("capacity", is(80));
+    }
+
+    @Test
+    public void testDeletionsAndInvalidRecords() throws Exception {
+        long id = newId();
+        long invalid = newId();
+        ingest(List.of(message(id, "Short lived", 10, T0, "CREATED")));
+        Long eventId = eventId(id);
+
+        ingest(List.of(
+                "not json",
+                message(invalid, "", 10, T0, "CREATED"),
+                """
+                {"id": %d, "action": "DELETED", "timestamp": "%s"}
+                """.formatted(id, T0.plusSeconds(1))));
+
+        given().when().get("/api/events/" + eventId).then().statusCode(404);
+        assertNull(eventId(invalid));
+
+        // The source outlives its event, so a replay of the creation stays stale
+        ingest(List.of(message(id, "Short lived", 10, T0, "CREATED")));
+        given().when().get("/api/events/" + eventId).then().statusCode(404);
+
+        given()
+                .when().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("events_ingest_batch_size_count"))
+                .body(containsString("events_ingest_record_age_seconds"))
+                .body(containsString("events_ingest_records_total{result=\"deleted\"}"))
+                .body(containsString("events_ingest_records_total{result=\"rejected\"}"));
+    }
+
+    @Test
+    public void testUpstreamIdOfAnApiCreatedEventCreatesAnEventOfItsOwn() throws Exception {
+        int apiId = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "title": "Created through the API",
+                            "description": "Not ingested",
+                            "location": "API Hall",
+                            "startDate": "2035-07-01T10:00:00",
+                            "endDate": "2035-07-01T18:00:00",
+                            "capacity": 40
+                        }
+                        """)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        ingest(List.of(message(apiId, "Ingested with the same id", 70, T0, "CREATED")));
+
+        given().when().get("/api/events/" + apiId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Created through the API"))
+                .body("capacity", is(40))
+                .body("version", is(0));
+        Long ingestedId = eventId(apiId);
+        assertNotEquals(apiId, ingestedId.intValue());
+        given().when().get("/api/events/" + ingestedId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Ingested with the same id"))
+                .body("capacity", is(70));
+
+        ingest(List.of("""
+                {"id": %d, "action": "DELETED", "timestamp": "%s"}
+                """.formatted(apiId, T0.plusSeconds(1))));
+
+        given().when().get("/api/events/" + apiId).then().statusCode(200);
+        given().when().get("/api/events/" + ingestedId).then().statusCode(404);
+    }
+
+    /**
+     * Id of the event an upstream id was ingested as, or null if it never was.
+     */
+    private Long eventId(long upstreamId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT eventId FROM event_sources WHERE externalId = ?")) {
+            statement.setLong(1, upstreamId);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Sends one batch and waits until it is acknowledged, which happens only once it is committed.
+     */
+    private void ingest(List<String> records) throws Exception {
+        InMemorySource<Message<List<String>>> source = connector.source("event-ingest");
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        source.send(Message.of(records)
+                .withAck(() -> {
+                    acked.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(failure -> {
+                    acked.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        acked.get(10, TimeUnit.SECONDS);
+    }
+
+    private static String message(long id, String title, int capacity, LocalDateTime timestamp, String action) {
+        return """
+                {
+                    "id": %d,
+                    "title": "%s",
+                    "description": "Produced upstream",
+                    "location": "Upstream Hall",
+                    "startDate": "2035-06-01T10:00:00",
+                    "endDate": "2035-06-01T18:00:00",
+                    "capacity": %d,
+                    "status": "SCHEDULED",
+                    "timestamp": "%s",
+                    "action": "%s"
+                }
+                """.formatted(id, title, capacity, timestamp, action);
+    }
+
+    private static long newId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+    }
+}
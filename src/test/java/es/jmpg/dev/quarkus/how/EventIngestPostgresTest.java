@@ -0,0 +1,157 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.service.SeatInventory;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The ingest SQL ({@code MERGE}, {@code event_sources}, {@code events_SEQ}) against PostgreSQL, where the events table
+ * is partitioned and mixed-case columns only match when quoted.
+ */
+@QuarkusTest
+@TestProfile(PostgresDatabase.class)
+public class EventIngestPostgresTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2035, 1, 1, 9, 0);
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    SeatInventory seatInventory;
+
+    @Test
+    public void testBatchesCreateUpdateAndDelete() throws Exception {
+        long id = newId();
+        long other = newId();
+
+        ingest(List.of(
+                message(id, "First title", 100, "2035-06-01T10:00:00", T0, "CREATED"),
+                message(other, "Other event", 50, "2035-06-01T10:00:00", T0, "CREATED")));
+        Long eventId = eventId(id);
+
+        given().when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("First title"))
+                .body("availableSeats", is(100));
+
+        // Moving the start date moves the row to another partition
+        ingest(List.of(message(id, "Second title", 120, "2036-02-01T10:00:00", T0.plusSeconds(1), "UPDATED")));
+
+        given().when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Second title"))
+                .body("startDate", is("2036-02-01T10:00:00"))
+                .body("availableSeats", is(120))
+                .body("version", is(1));
+
+        ingest(List.of("""
+                {"id": %d, "action": "DELETED", "timestamp": "%s"}
+                """.formatted(other, T0.plusSeconds(1))));
+
+        given().when().get("/api/events/" + eventId(other)).then().statusCode(404);
+    }
+
+    @Test
+    public void testCapacityCannotDropBelowHeldSeats() throws Exception {
+        long id = newId();
+        ingest(List.of(message(id, "Held", 10, "2035-06-01T10:00:00", T0, "CREATED")));
+        Long eventId = eventId(id);
+        assertEquals(5, seatInventory.hold(eventId, "node", 5, 5, Duration.ofMinutes(1)));
+
+        ingest(List.of(message(id, "Shrunk below the held seats", 4, "2035-06-01T10:00:00", T0.plusSeconds(1),
+                "UPDATED")));
+
+        given().when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Held"))
+                .body("capacity", is(10));
+
+        ingest(List.of(message(id, "Shrunk to the held seats", 5, "2035-06-01T10:00:00", T0.plusSeconds(2),
+                "UPDATED")));
+
+        given().when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Shrunk to the held seats"))
+                .body("capacity", is(5))
+                .body("availableSeats", is(5));
+    }
+
+    private Long eventId(long upstreamId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT \"eventId\" FROM event_sources WHERE \"externalId\" = ?")) {
+            statement.setLong(1, upstreamId);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getLong(1) : null;
+            }
+        }
+    }
+
+    private void ingest(List<String> records) throws Exception {
+        InMemorySource<Message<List<String>>> source = connector.source("event-ingest");
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        source.send(Message.of(records)
+                .withAck(() -> {
+                    acked.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(failure -> {
+                    acked.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        acked.get(10, TimeUnit.SECONDS);
+    }
+
+    private static String message(long id, String title, int capacity, String startDate, LocalDateTime timestamp,
+                                  String action) {
+        return """
+                {
+                    "id": %d,
+                    "title": "%s",
+                    "description": "Produced upstream",
+                    "location": "Upstream Hall",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": %d,
+                    "status": "SCHEDULED",
+                    "timestamp": "%s",
+                    "action": "%s"
+                }
+                """.formatted(id, title, startDate, LocalDateTime.parse(startDate).plusHours(8), capacity, timestamp,
+                action);
+    }
+
+    private static long newId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+    }
+}
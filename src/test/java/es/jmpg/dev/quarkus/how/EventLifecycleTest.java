@@ -0,0 +1,133 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.entity.SchedulerLease;
+import es.jmpg.dev.quarkus.how.kafka.OutboxRelay;
+import es.jmpg.dev.quarkus.how.service.EventLifecycleScheduler;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs in its own application so lifecycle runs at simulated dates cannot move the events other tests rely on.
+ */
+@QuarkusTest
+@TestProfile(EventLifecycleTest.SmallBatches.class)
+public class EventLifecycleTest {
+
+    public static class SmallBatches implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("events.lifecycle.batch-size", "2");
+        }
+    }
+
+    @Inject
+    EventLifecycleScheduler scheduler;
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Test
+    public void testAdvancesStatusesAndPublishesChanges() {
+        InMemorySink<String> sink = connector.sink("event-changes");
+        int shortEvent = createEvent("2040-01-01T10:00:00", "2040-01-01T12:00:00");
+        int longEvent = createEvent("2040-01-01T09:00:00", "2040-01-03T18:00:00");
+        int laterEvent = createEvent("2040-01-02T10:00:00", "2040-01-02T12:00:00");
+        int cancelledEvent = createEvent("2040-01-01T08:00:00", "2040-01-01T09:00:00");
+        given().queryParam("status", "CANCELLED").when().patch("/api/events/" + cancelledEvent + "/status")
+                .then().statusCode(200);
+
+        scheduler.advance(LocalDateTime.parse("2040-01-01T11:00:00"));
+
+        assertStatus(shortEvent, "ONGOING", 1);
+        assertStatus(longEvent, "ONGOING", 1);
+        assertStatus(laterEvent, "SCHEDULED", 0);
+        assertStatus(cancelledEvent, "CANCELLED", 1);
+
+        // The later event is skipped straight to COMPLETED
+        scheduler.advance(LocalDateTime.parse("2040-01-02T13:00:00"));
+
+        assertStatus(shortEvent, "COMPLETED", 2);
+        assertStatus(longEvent, "ONGOING", 1);
+        assertStatus(laterEvent, "COMPLETED", 1);
+        assertStatus(cancelledEvent, "CANCELLED", 1);
+
+        outboxRelay.publishBatch();
+
+        List<String> changes = sink.received().stream()
+                .map(message -> JsonPath.from(message.getPayload()))
+                .filter(payload -> payload.getInt("id") == shortEvent && "STATUS_CHANGED".equals(payload.getString("action")))
+                .map(payload -> payload.getString("status"))
+                .toList();
+        assertEquals(List.of("ONGOING", "COMPLETED"), changes);
+    }
+
+    @Test
+    public void testOnlyTheLeaseHolderAdvances() {
+        int eventId = createEvent("2041-01-01T10:00:00", "2041-01-01T12:00:00");
+        QuarkusTransaction.requiringNew().run(() -> SchedulerLease.update(
+                "owner = ?1, expiresAt = ?2 where name = ?3", "other-node", LocalDateTime.now().plusMinutes(5),
+                "event-lifecycle"));
+
+        assertEquals(-1, scheduler.advance(LocalDateTime.parse("2041-01-01T11:00:00")));
+        assertStatus(eventId, "SCHEDULED", 0);
+
+        // The other node stopped renewing
+        QuarkusTransaction.requiringNew().run(() -> SchedulerLease.update(
+                "expiresAt = ?1 where name = ?2", LocalDateTime.now().minusSeconds(1), "event-lifecycle"));
+
+        scheduler.advance(LocalDateTime.parse("2041-01-01T11:00:00"));
+        assertStatus(eventId, "ONGOING", 1);
+    }
+
+    private void assertStatus(int eventId, String status, int version) {
+        given()
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("status", is(status))
+                .body("version", is(version));
+    }
+
+    private int createEvent(String startDate, String endDate) {
+        String eventJson = """
+                {
+                    "title": "Lifecycle Event",
+                    "description": "Moved by the lifecycle job",
+                    "location": "Test Location",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": 10
+                }
+                """.formatted(startDate, endDate);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @QuarkusTest
 public class EventResourceTest {
@@ -137,4 +139,237 @@ public class EventResourceTest {
                 .then()
                 .statusCode(404);
     }
+
+    @Test
+    public void testGetEventsKeysetPages() {
+        String next = given()
+                .queryParam("limit", 2)
+                .when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("items.size()", is(2))
+                .body("next", notNullValue())
+                .extract().path("next");
+
+        int lastIdOfFirstPage = given()
+                .queryParam("limit", 2)
+                .when().get("/api/events")
+                .then()
+                .extract().path("items[1].id");
+
+        given()
+                .queryParam("limit", 2)
+                .queryParam("after", next)
+                .when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .body("items[0].id", is(greaterThan(lastIdOfFirstPage)));
+    }
+
+    @Test
+    public void testGetEventsByStatusKeysetPagesByStartDate() {
+        given()
+                .queryParam("limit", 1)
+                .queryParam("sort", "startDate")
+                .when().get("/api/events/status/SCHEDULED")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(1))
+                .body("items[0].status", is("SCHEDULED"))
+                .body("next", notNullValue());
+    }
+
+    @Test
+    public void testGetEventsInvalidCursor() {
+        given()
+                .queryParam("after", "not-a-cursor")
+                .when().get("/api/events")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testCachedEventIsInvalidatedOnWrite() {
+        String eventJson = """
+                {
+                    "title": "Cached Event",
+                    "description": "Read through the cache",
+                    "location": "Test Location",
+                    "startDate": "2026-12-28T10:00:00",
+                    "endDate": "2026-12-28T18:00:00",
+                    "capacity": 40
+                }
+                """;
+
+        int eventId = given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given().when().get("/api/events/" + eventId).then().statusCode(200).body("status", is("SCHEDULED"));
+        given().when().get("/api/events/" + eventId).then().statusCode(200).body("status", is("SCHEDULED"));
+
+        given()
+                .queryParam("status", "CANCELLED")
+                .when().patch("/api/events/" + eventId + "/status")
+                .then()
+                .statusCode(200);
+
+        given()
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("status", is("CANCELLED"));
+
+        given()
+                .when().get("/api/events/cache/stats")
+                .then()
+                .statusCode(200)
+                .body("enabled", is(true))
+                .body("hits", is(greaterThan(0)))
+                .body("misses", is(greaterThan(0)));
+    }
+
+    @Test
+    public void testConditionalGetAndUpdate() {
+        String eventJson = """
+                {
+                    "title": "Tagged Event",
+                    "description": "Polled with ETags",
+                    "location": "Test Location",
+                    "startDate": "2027-01-15T10:00:00",
+                    "endDate": "2027-01-15T18:00:00",
+                    "capacity": 10
+                }
+                """;
+
+        int eventId = given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        String etag = given().when().get("/api/events/" + eventId).then().statusCode(200).extract().header("ETag");
+        assertNotNull(etag);
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(304)
+                .header("ETag", is(etag));
+
+        // A reservation changes the representation, so the old tag no longer matches
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": 1}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("availableSeats", is(9));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body(eventJson)
+                .when().put("/api/events/" + eventId)
+                .then()
+                .statusCode(412);
+
+        String current = given().when().get("/api/events/" + eventId).then().extract().header("ETag");
+        String updated = given()
+                .header("If-Match", current)
+                .queryParam("status", "ONGOING")
+                .when().patch("/api/events/" + eventId + "/status")
+                .then()
+                .statusCode(200)
+                .body("status", is("ONGOING"))
+                .extract().header("ETag");
+        assertNotEquals(current, updated);
+    }
+
+    @Test
+    public void testCollectionETag() {
+        String etag = given().when().get("/api/events/status/COMPLETED").then().statusCode(200).extract().header("ETag");
+        assertNotNull(etag);
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(304);
+
+        given()
+                .header("If-None-Match", etag)
+                .queryParam("limit", 1)
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(304);
+        given()
+                .queryParam("limit", 1)
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(200)
+                .header("ETag", nullValue());
+
+        int eventId = given().when().get("/api/events").then().extract().path("[0].id");
+        given()
+                .queryParam("status", "COMPLETED")
+                .when().patch("/api/events/" + eventId + "/status")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/events/status/COMPLETED")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(etag));
+    }
+
+    @Test
+    public void testCollectionETagFollowsWritesThatKeepUpdatedAt() {
+        String event = """
+                {
+                    "title": "Rewritten unchanged",
+                    "description": "Same content every time",
+                    "location": "ETag Hall",
+                    "startDate": "2034-04-01T10:00:00",
+                    "endDate": "2034-04-01T12:00:00",
+                    "capacity": 30
+                }
+                """;
+        int eventId = given().contentType(ContentType.JSON).body(event)
+                .when().post("/api/events")
+                .then().statusCode(201)
+                .extract().path("id");
+        String etag = given().when().get("/api/events").then().statusCode(200).extract().header("ETag");
+
+        // Nothing changes but the version, so updatedAt stays where it was
+        given().contentType(ContentType.JSON).body(event)
+                .when().put("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("version", is(1));
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(etag));
+    }
 }
@@ -0,0 +1,294 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class EventSearchResourceTest {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    public void testSearchByOverlappingRangeAndLocation() {
+        String location = "Search Hall " + System.nanoTime();
+        int before = createEvent(location, "2031-05-01T10:00:00", "2031-05-01T12:00:00");
+        int straddlingStart = createEvent(location, "2031-05-31T20:00:00", "2031-06-01T02:00:00");
+        int inside = createEvent(location, "2031-06-10T10:00:00", "2031-06-10T12:00:00");
+        int straddlingEnd = createEvent(location, "2031-06-30T22:00:00", "2031-07-01T01:00:00");
+        int after = createEvent(location, "2031-07-02T10:00:00", "2031-07-02T12:00:00");
+
+        given()
+                .queryParam("from", "2031-06-01T00:00:00")
+                .queryParam("to", "2031-07-01T00:00:00")
+                .queryParam("location", location)
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("items.size()", is(3))
+                .body("items[0].id", is(straddlingStart))
+                .body("items[1].id", is(inside))
+                .body("items[2].id", is(straddlingEnd));
+
+        given()
+                .queryParam("from", "2031-07-01T00:00:00")
+                .queryParam("location", location)
+                .queryParam("status", "cancelled")
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(0));
+
+        given()
+                .queryParam("to", "2031-05-02T00:00:00")
+                .queryParam("location", location)
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(1))
+                .body("items[0].id", is(before));
+
+        given()
+                .queryParam("from", "2031-07-02T11:00:00")
+                .queryParam("location", location)
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(1))
+                .body("items[0].id", is(after));
+    }
+
+    @Test
+    public void testSearchKeysetPages() {
+        String location = "Paged Hall " + System.nanoTime();
+        int first = createEvent(location, "2032-01-01T10:00:00", "2032-01-01T12:00:00");
+        int second = createEvent(location, "2032-01-02T10:00:00", "2032-01-02T12:00:00");
+        int third = createEvent(location, "2032-01-03T10:00:00", "2032-01-03T12:00:00");
+
+        String next = given()
+                .queryParam("location", location)
+                .queryParam("status", "SCHEDULED")
+                .queryParam("limit", 2)
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(2))
+                .body("items[0].id", is(first))
+                .body("items[1].id", is(second))
+                .body("next", notNullValue())
+                .extract().path("next");
+
+        given()
+                .queryParam("location", location)
+                .queryParam("status", "SCHEDULED")
+                .queryParam("limit", 2)
+                .queryParam("after", next)
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", is(1))
+                .body("items[0].id", is(third))
+                .body("next", nullValue());
+    }
+
+    @Test
+    public void testSearchRejectsInvalidParameters() {
+        given()
+                .queryParam("from", "2031-07-01T00:00:00")
+                .queryParam("to", "2031-06-01T00:00:00")
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("from", "yesterday")
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("status", "POSTPONED")
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testTextSearchRanksAndMatchesPrefixes() {
+        String word = "kw" + Long.toString(System.nanoTime(), 36);
+        int inDescription = createTextEvent("Somewhere", "Plain title", "All about " + word + "ing");
+        int inTitle = createTextEvent("Somewhere", "The " + word + " summit", "Yearly meetup");
+        int inLocation = createTextEvent(word + " Hall", "Plain title", "Yearly meetup");
+
+        given()
+                .queryParam("q", word.substring(0, 6))
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("$.size()", is(3))
+                .body("[0].id", is(inTitle))
+                .body("[1].id", is(inLocation))
+                .body("[2].id", is(inDescription));
+
+        given()
+                .queryParam("q", word + " summit")
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("$.size()", is(1))
+                .body("[0].id", is(inTitle));
+
+        given()
+                .queryParam("q", word + " absentword")
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("$.size()", is(0));
+    }
+
+    @Test
+    public void testTextSearchFollowsUpdatesAndDeletes() {
+        String before = "kw" + Long.toString(System.nanoTime(), 36);
+        String after = before + "x";
+        int eventId = createTextEvent("Somewhere", before + " night", "Fixture");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "title": "%s night",
+                            "description": "Fixture",
+                            "location": "Somewhere",
+                            "startDate": "2031-01-01T10:00:00",
+                            "endDate": "2031-01-01T12:00:00",
+                            "capacity": 10
+                        }
+                        """.formatted(after))
+                .when().put("/api/events/" + eventId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .queryParam("q", before)
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("$.size()", is(1))
+                .body("[0].title", is(after + " night"));
+
+        given()
+                .queryParam("q", after)
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("$.size()", is(1));
+
+        given()
+                .when().delete("/api/events/" + eventId)
+                .then()
+                .statusCode(204);
+
+        given()
+                .queryParam("q", before)
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("$.size()", is(0));
+    }
+
+    @Test
+    public void testTextSearchRejectsEmptyQuery() {
+        given()
+                .queryParam("q", " -- ")
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("q", "conference")
+                .queryParam("limit", 0)
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(400);
+    }
+
+    /**
+     * The plans are checked against the SQL shape {@code EventService.searchEvents} generates, so an index
+     * or query change that silently falls back to a table scan or a sort of every match fails here.
+     */
+    @Test
+    public void testSearchQueriesUseRangeIndexes() throws Exception {
+        String select = "select id, title, startDate, endDate from events where ";
+        String range = " endDate > timestamp '2031-06-01 00:00:00' and startDate < timestamp '2031-07-01 00:00:00'";
+        String limit = " fetch first 51 rows only";
+
+        assertPlanUses("IDX_EVENTS_STATUS_END", select
+                + "status = 'SCHEDULED' and" + range + " order by status, endDate, id" + limit);
+        assertPlanUses("IDX_EVENTS_STATUS_END", select
+                + "status = 'SCHEDULED' and endDate >= timestamp '2031-06-01 00:00:00'"
+                + " and (endDate > timestamp '2031-06-01 00:00:00'"
+                + " or (endDate = timestamp '2031-06-01 00:00:00' and id > 10))"
+                + " order by status, endDate, id" + limit);
+        assertPlanUses("IDX_EVENTS_LOCATION_END", select
+                + "location = 'Arena' and" + range + " order by location, endDate, id" + limit);
+        assertPlanUses("IDX_EVENTS_END", select + range.substring(1) + " order by endDate, id" + limit);
+    }
+
+    private void assertPlanUses(String index, String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("explain " + sql)) {
+            assertTrue(plan.next());
+            String text = plan.getString(1);
+            assertNotNull(text);
+            String normalized = text.toUpperCase();
+            assertTrue(normalized.contains(index), () -> "Expected " + index + " in plan:\n" + text);
+            assertTrue(normalized.contains("INDEX SORTED"), () -> "Expected the index to deliver the order:\n" + text);
+        }
+    }
+
+    private int createEvent(String location, String startDate, String endDate) {
+        return createEvent(location, "Searchable Event", "Search fixture", startDate, endDate);
+    }
+
+    private int createTextEvent(String location, String title, String description) {
+        return createEvent(location, title, description, "2031-01-01T10:00:00", "2031-01-01T12:00:00");
+    }
+
+    private int createEvent(String location, String title, String description, String startDate, String endDate) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "%s",
+                    "location": "%s",
+                    "startDate": "%s",
+                    "endDate": "%s",
+                    "capacity": 10
+                }
+                """.formatted(title, description, location, startDate, endDate);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
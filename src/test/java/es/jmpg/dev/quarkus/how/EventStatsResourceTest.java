@@ -0,0 +1,109 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.service.EventStatistics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class EventStatsResourceTest {
+
+    @Inject
+    EventStatistics eventStatistics;
+
+    @Test
+    public void testStatsFollowWrites() {
+        String location = "Stats Hall " + System.nanoTime();
+        JsonPath before = stats();
+
+        int eventId = createEvent(location);
+        given().contentType(ContentType.JSON).body("{\"seats\": 4}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then().statusCode(201);
+
+        JsonPath after = stats();
+        assertEquals(count(before, "SCHEDULED") + 1, count(after, "SCHEDULED"));
+        Map<String, Object> totals = location(after, location);
+        assertEquals(1, totals.get("events"));
+        assertEquals(10, totals.get("capacity"));
+        assertEquals(4, totals.get("seatsSold"));
+        assertEquals(0.4f, totals.get("occupancy"));
+
+        given().queryParam("status", "CANCELLED").when().patch("/api/events/" + eventId + "/status")
+                .then().statusCode(200);
+
+        JsonPath cancelled = stats();
+        assertEquals(count(before, "CANCELLED") + 1, count(cancelled, "CANCELLED"));
+        assertEquals(count(before, "SCHEDULED"), count(cancelled, "SCHEDULED"));
+        assertNull(location(cancelled, location));
+
+        given().when().delete("/api/events/" + eventId).then().statusCode(204);
+
+        assertEquals(count(before, "CANCELLED"), count(stats(), "CANCELLED"));
+    }
+
+    @Test
+    public void testReconciliationCorrectsDrift() {
+        String location = "Drift Hall " + System.nanoTime();
+        int eventId = createEvent(location);
+
+        // A write the aggregates never hear about, as if made on another node
+        QuarkusTransaction.requiringNew().run(() -> Event.update(
+                "availableSeats = 7, version = version + 1 where id = ?1", (long) eventId));
+        assertEquals(0, location(stats(), location).get("seatsSold"));
+
+        assertTrue(eventStatistics.reconcile() >= 1);
+
+        JsonPath reconciled = stats();
+        assertEquals(3, location(reconciled, location).get("seatsSold"));
+        assertTrue(reconciled.getLong("lastCorrections") >= 1);
+    }
+
+    private static JsonPath stats() {
+        return given()
+                .when().get("/api/events/stats")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath();
+    }
+
+    private static long count(JsonPath stats, String status) {
+        return stats.getLong("eventsByStatus." + status);
+    }
+
+    private static Map<String, Object> location(JsonPath stats, String location) {
+        return stats.getMap("locations.find { it.location == '" + location + "' }");
+    }
+
+    private int createEvent(String location) {
+        String eventJson = """
+                {
+                    "title": "Counted Event",
+                    "description": "Shown on the dashboard",
+                    "location": "%s",
+                    "startDate": "2032-05-01T10:00:00",
+                    "endDate": "2032-05-01T12:00:00",
+                    "capacity": 10
+                }
+                """.formatted(location);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+}
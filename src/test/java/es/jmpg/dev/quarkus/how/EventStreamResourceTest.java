@@ -0,0 +1,191 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.service.EventChangeFeed;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class EventStreamResourceTest {
+
+    @TestHTTPResource("/api/events/stream")
+    URI streamUri;
+
+    @Inject
+    EventChangeFeed changeFeed;
+
+    @Test
+    public void testStreamsCoalescedChangesOfSubscribedEvents() throws Exception {
+        int watched = createEvent();
+        int other = createEvent();
+
+        try (ChangeStream stream = ChangeStream.open(streamUri + "?id=" + watched, changeFeed)) {
+            given().queryParam("status", "ONGOING").when().patch("/api/events/" + watched + "/status")
+                    .then().statusCode(200);
+            given().contentType(ContentType.JSON).body("{\"seats\": 3}")
+                    .when().post("/api/events/" + watched + "/reservations")
+                    .then().statusCode(201);
+            given().queryParam("status", "ONGOING").when().patch("/api/events/" + other + "/status")
+                    .then().statusCode(200);
+
+            List<Message> received = stream.awaitUntil(message -> message.json.getInt("availableSeats") == 7);
+            // Two writes arrive as one message, or as two if they straddle a window
+            assertTrue(received.size() <= 2, () -> "Expected coalesced changes, got " + received);
+            assertTrue(received.stream().allMatch(message -> message.json.getInt("id") == watched));
+            assertEquals("ONGOING", received.get(received.size() - 1).json.getString("status"));
+        }
+    }
+
+    @Test
+    public void testStatusFilterKeepsDeletions() throws Exception {
+        int cancelled = createEvent();
+        int ongoing = createEvent();
+
+        try (ChangeStream stream = ChangeStream.open(streamUri + "?status=cancelled", changeFeed)) {
+            given().queryParam("status", "CANCELLED").when().patch("/api/events/" + cancelled + "/status")
+                    .then().statusCode(200);
+            given().queryParam("status", "ONGOING").when().patch("/api/events/" + ongoing + "/status")
+                    .then().statusCode(200);
+
+            List<Message> first = stream.awaitUntil(message -> message.json.getInt("id") == cancelled);
+            assertEquals("STATUS_CHANGED", first.get(first.size() - 1).name);
+
+            given().when().delete("/api/events/" + cancelled).then().statusCode(204);
+
+            List<Message> second = stream.awaitUntil(message -> "DELETED".equals(message.name));
+            assertEquals(cancelled, second.get(second.size() - 1).json.getInt("id"));
+
+            Stream.concat(first.stream(), second.stream()).forEach(message -> assertTrue(
+                    "DELETED".equals(message.name) || "CANCELLED".equals(message.json.getString("status")),
+                    () -> "Unexpected message " + message));
+        }
+    }
+
+    @Test
+    public void testStreamRejectsUnknownStatus() {
+        given()
+                .queryParam("status", "POSTPONED")
+                .when().get("/api/events/stream")
+                .then()
+                .statusCode(400);
+    }
+
+    private int createEvent() {
+        String eventJson = """
+                {
+                    "title": "Streamed Event",
+                    "description": "Watched by a dashboard",
+                    "location": "Test Location",
+                    "startDate": "2031-03-01T10:00:00",
+                    "endDate": "2031-03-01T12:00:00",
+                    "capacity": 10
+                }
+                """;
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private record Message(String name, JsonPath json) {
+
+        @Override
+        public String toString() {
+            return name + " " + json.prettify();
+        }
+    }
+
+    /**
+     * Minimal SSE client: reads the response line by line on the HTTP client's threads and queues every event.
+     */
+    private static final class ChangeStream implements AutoCloseable {
+
+        private final BlockingQueue<Message> messages = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Flow.Subscription> body = new CompletableFuture<>();
+
+        private ChangeStream(String uri) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).header("Accept", "text/event-stream").build();
+            HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                    new Flow.Subscriber<String>() {
+                        private String name;
+
+                        @Override
+                        public void onSubscribe(Flow.Subscription subscription) {
+                            body.complete(subscription);
+                            subscription.request(Long.MAX_VALUE);
+                        }
+
+                        @Override
+                        public void onNext(String line) {
+                            if (line.startsWith("event:")) {
+                                name = line.substring("event:".length()).trim();
+                            } else if (line.startsWith("data:")) {
+                                messages.add(new Message(name, JsonPath.from(line.substring("data:".length()))));
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                        }
+
+                        @Override
+                        public void onComplete() {
+                        }
+                    }));
+        }
+
+        static ChangeStream open(String uri, EventChangeFeed changeFeed) throws InterruptedException {
+            int before = changeFeed.subscribers();
+            ChangeStream stream = new ChangeStream(uri);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (changeFeed.subscribers() <= before && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(changeFeed.subscribers() > before, "Stream did not subscribe");
+            return stream;
+        }
+
+        List<Message> awaitUntil(Predicate<Message> last) throws InterruptedException {
+            List<Message> received = new ArrayList<>();
+            while (true) {
+                Message message = messages.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message, () -> "Timed out, received " + received);
+                received.add(message);
+                if (last.test(message)) {
+                    return received;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            body.thenAccept(Flow.Subscription::cancel);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.dto.EventResponseDTO;
+import es.jmpg.dev.quarkus.how.entity.Event;
+import es.jmpg.dev.quarkus.how.entity.IdempotencyRecord;
+import es.jmpg.dev.quarkus.how.service.IdempotencyStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class IdempotencyKeyTest {
+
+    private static final int THREADS = 8;
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @Test
+    public void testRetriedCreateReturnsTheOriginalEvent() {
+        String title = "Retried " + UUID.randomUUID();
+        String key = UUID.randomUUID().toString();
+
+        Response first = create(key, title);
+        assertEquals(201, first.statusCode());
+        assertNull(first.header("Idempotent-Replayed"));
+
+        Response retry = create(key, title);
+        assertEquals(201, retry.statusCode());
+        assertEquals("true", retry.header("Idempotent-Replayed"));
+        assertEquals(first.header("ETag"), retry.header("ETag"));
+        assertEquals(first.asString(), retry.asString());
+
+        assertEquals(1, countTitled(title));
+    }
+
+    @Test
+    public void testKeyReusedForAnotherRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        assertEquals(201, create(key, "First use " + key).statusCode());
+
+        assertEquals(422, create(key, "Second use " + key).statusCode());
+    }
+
+    @Test
+    public void testReplayDoesNotTouchTheEvent() {
+        int eventId = create(null, "Status change " + UUID.randomUUID()).path("id");
+        String key = UUID.randomUUID().toString();
+
+        Response cancelled = patchStatus(eventId, "CANCELLED", key);
+        assertEquals(200, cancelled.statusCode());
+        assertEquals(200, patchStatus(eventId, "SCHEDULED", null).statusCode());
+
+        Response retry = patchStatus(eventId, "CANCELLED", key);
+        assertEquals(200, retry.statusCode());
+        assertEquals("true", retry.header("Idempotent-Replayed"));
+        assertEquals("CANCELLED", retry.path("status"));
+
+        assertEquals("SCHEDULED", given().when().get("/api/events/" + eventId).path("status"));
+    }
+
+    @Test
+    public void testConcurrentFirstUsesCreateOneEvent() throws Exception {
+        String title = "Raced " + UUID.randomUUID();
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return create(key, title);
+                }));
+            }
+            start.countDown();
+
+            Integer id = null;
+            for (Future<Response> future : futures) {
+                Response response = future.get();
+                assertEquals(201, response.statusCode(), response.asString());
+                if (id == null) {
+                    id = response.path("id");
+                }
+                assertEquals(id, response.<Integer>path("id"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, countTitled(title));
+    }
+
+    /**
+     * A key stored by another node reaches this one through the table; its cached copy must not outlive the row.
+     */
+    @Test
+    public void testKeyLoadedFromTheTableExpiresWithItsRow() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String request = "POST /api/events/elsewhere";
+        String requestHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(request.getBytes(StandardCharsets.UTF_8)));
+        QuarkusTransaction.requiringNew().run(() -> {
+            IdempotencyRecord row = new IdempotencyRecord();
+            row.idempotencyKey = key;
+            row.requestHash = requestHash;
+            row.status = 201;
+            row.response = "{\"id\":1}";
+            row.expiresAt = LocalDateTime.now().plusSeconds(1);
+            row.persist();
+        });
+        AtomicInteger writes = new AtomicInteger();
+        Supplier<EventResponseDTO> write = () -> {
+            writes.incrementAndGet();
+            EventResponseDTO written = new EventResponseDTO();
+            written.version = 0L;
+            return written;
+        };
+
+        assertTrue(idempotencyStore.execute(key, request, null, 201, write).replayed);
+        Thread.sleep(1500);
+
+        assertFalse(idempotencyStore.execute(key, request, null, 201, write).replayed);
+        assertEquals(1, writes.get());
+    }
+
+    private static Response create(String key, String title) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "Sent through a retrying gateway",
+                    "location": "Gateway Hall",
+                    "startDate": "2033-03-01T10:00:00",
+                    "endDate": "2033-03-01T12:00:00",
+                    "capacity": 30
+                }
+                """.formatted(title);
+        var request = given().contentType(ContentType.JSON).body(eventJson);
+        if (key != null) {
+            request.header("Idempotency-Key", key);
+        }
+        return request.when().post("/api/events");
+    }
+
+    private static Response patchStatus(int eventId, String status, String key) {
+        var request = given().queryParam("status", status);
+        if (key != null) {
+            request.header("Idempotency-Key", key);
+        }
+        return request.when().patch("/api/events/" + eventId + "/status");
+    }
+
+    private static long countTitled(String title) {
+        return QuarkusTransaction.requiringNew().call(() -> Event.count("title", title));
+    }
+}
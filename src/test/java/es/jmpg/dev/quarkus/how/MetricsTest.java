@@ -0,0 +1,52 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+
+@QuarkusTest
+public class MetricsTest {
+
+    @Test
+    public void testScrapeExposesHotPathTimers() {
+        String eventJson = """
+                {
+                    "title": "Measured Event",
+                    "description": "Shows up in the metrics",
+                    "location": "Test Location",
+                    "startDate": "2027-02-10T10:00:00",
+                    "endDate": "2027-02-10T18:00:00",
+                    "capacity": 30
+                }
+                """;
+
+        int eventId = given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given().when().get("/api/events/" + eventId).then().statusCode(200);
+        given().when().get("/api/events/999999").then().statusCode(404);
+
+        given()
+                .when().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("events_api_requests_seconds_bucket{"))
+                .body(containsString("operation=\"getEventById\",resource=\"EventResource\",status=\"404\""))
+                .body(containsString("events_db_operations_seconds_count{component=\"EventService\","
+                        + "operation=\"createEvent\",status=\"ok\"}"))
+                .body(containsString("operation=\"getEventById\",status=\"NotFoundException\""))
+                .body(containsString("http_server_requests_seconds_bucket{"))
+                .body(containsString("hibernate_query_executions_total"))
+                .body(containsString("agroal_blocking_time"))
+                .body(containsString("cache_gets_total{cache=\"event-json\""))
+                .body(containsString("events_outbox_pending"));
+    }
+}
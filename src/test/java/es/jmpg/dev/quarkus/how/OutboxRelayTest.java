@@ -0,0 +1,125 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.kafka.OutboxRelay;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+public class OutboxRelayTest {
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    public void testMutationsArePublishedInOrder() {
+        InMemorySink<String> sink = connector.sink("event-changes");
+
+        String eventJson = """
+                {
+                    "title": "Published Event",
+                    "description": "Goes through the outbox",
+                    "location": "Test Location",
+                    "startDate": "2026-12-29T10:00:00",
+                    "endDate": "2026-12-29T18:00:00",
+                    "capacity": 20
+                }
+                """;
+
+        int eventId = given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .queryParam("status", "ONGOING")
+                .when().patch("/api/events/" + eventId + "/status")
+                .then()
+                .statusCode(200);
+
+        given()
+                .when().delete("/api/events/" + eventId)
+                .then()
+                .statusCode(204);
+
+        outboxRelay.publishBatch();
+
+        List<String> actions = sink.received().stream()
+                .map(message -> JsonPath.from(message.getPayload()))
+                .filter(payload -> payload.getInt("id") == eventId)
+                .map(payload -> payload.getString("action"))
+                .toList();
+        assertEquals(List.of("CREATED", "STATUS_CHANGED", "DELETED"), actions);
+
+        given()
+                .when().get("/api/events/outbox/stats")
+                .then()
+                .statusCode(200)
+                .body("pending", is(0));
+    }
+
+    /**
+     * Two nodes writing one event: node B took the id block after node A's, so the first change got the higher id.
+     */
+    @Test
+    public void testChangesFromSeveralNodesArePublishedInVersionOrder() throws Exception {
+        InMemorySink<String> sink = connector.sink("event-changes");
+        long eventId = 880_001;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO event_outbox "
+                     + "(id, eventId, action, payload, createdAt, eventVersion) VALUES (?, ?, ?, ?, ?, ?)")) {
+            insertEntry(insert, 990_101, eventId, "CREATED", 0);
+            insertEntry(insert, 990_051, eventId, "UPDATED", 1);
+            insertEntry(insert, 990_001, eventId, "DELETED", Long.MAX_VALUE);
+            insertEntry(insert, 990_052, eventId + 1, "UPDATED", 3);
+            insertEntry(insert, 990_102, eventId + 1, "STATUS_CHANGED", 2);
+        }
+
+        outboxRelay.publishBatch();
+
+        List<String> published = sink.received().stream()
+                .map(message -> JsonPath.from(message.getPayload()))
+                .filter(payload -> List.of(eventId, eventId + 1).contains(payload.getLong("id")))
+                .map(payload -> payload.getLong("id") + ":" + payload.getString("action"))
+                .toList();
+        assertEquals(List.of(eventId + ":CREATED", eventId + ":UPDATED", eventId + ":DELETED",
+                (eventId + 1) + ":STATUS_CHANGED", (eventId + 1) + ":UPDATED"), published);
+    }
+
+    private static void insertEntry(PreparedStatement insert, long id, long eventId, String action, long version)
+            throws Exception {
+        insert.setLong(1, id);
+        insert.setLong(2, eventId);
+        insert.setString(3, action);
+        insert.setString(4, "{\"id\":" + eventId + ",\"action\":\"" + action + "\"}");
+        insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setLong(6, version);
+        insert.executeUpdate();
+    }
+}
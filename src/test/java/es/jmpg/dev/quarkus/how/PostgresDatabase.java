@@ -0,0 +1,66 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the application on a PostgreSQL 16 server started in-process, for the SQL that H2 accepts and PostgreSQL
+ * might not: quoted mixed-case columns, {@code MERGE}, partitions and triggers. Both datasources open the same
+ * database, so replica reads see every write.
+ */
+public class PostgresDatabase implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.ofEntries(
+                Map.entry("quarkus.datasource.db-kind", "postgresql"),
+                Map.entry("quarkus.datasource.read.db-kind", "postgresql"),
+                Map.entry("quarkus.hibernate-orm.dialect", "org.hibernate.dialect.PostgreSQLDialect"),
+                Map.entry("events.text-search.engine", "postgres"),
+                // No sample data, whose PostgreSQL changeset names the sequence unquoted
+                Map.entry("quarkus.liquibase.contexts", "postgres"),
+                Map.entry("events.partitions.enabled", "true"));
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+        return List.of(new TestResourceEntry(Server.class));
+    }
+
+    public static class Server implements QuarkusTestResourceLifecycleManager {
+
+        private EmbeddedPostgres postgres;
+
+        @Override
+        public Map<String, String> start() {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            String url = postgres.getJdbcUrl("postgres", "postgres");
+            return Map.of(
+                    "quarkus.datasource.jdbc.url", url,
+                    "quarkus.datasource.username", "postgres",
+                    "quarkus.datasource.read.jdbc.url", url,
+                    "quarkus.datasource.read.username", "postgres");
+        }
+
+        @Override
+        public void stop() {
+            if (postgres != null) {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
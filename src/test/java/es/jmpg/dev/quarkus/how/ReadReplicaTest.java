@@ -0,0 +1,151 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+/**
+ * The read datasource is a second H2 database that gets the same migrations and sample data but never the writes
+ * of the tests, like a replica that has not caught up, so where a read went shows in what it returns.
+ */
+@QuarkusTest
+@TestProfile(ReadReplicaTest.SeparateReplica.class)
+public class ReadReplicaTest {
+
+    private static final String PRIMARY_UNTIL = "events-primary-until";
+
+    public static class SeparateReplica implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.ofEntries(
+                    Map.entry("quarkus.datasource.read.jdbc.url",
+                            "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;CASE_INSENSITIVE_IDENTIFIERS=TRUE"),
+                    Map.entry("quarkus.liquibase.read.migrate-at-start", "true"),
+                    Map.entry("quarkus.liquibase.read.clean-at-start", "true"),
+                    Map.entry("quarkus.liquibase.read.contexts", "test"),
+                    Map.entry("quarkus.liquibase.read.change-log", "db/changelog/db.changelog-master.xml"),
+                    Map.entry("events.read-replica.read-your-writes", "PT1M"),
+                    // Cache entries always come from the primary
+                    Map.entry("events.cache.enabled", "false"));
+        }
+    }
+
+    @Test
+    public void testReadsUseTheReplicaUnlessTheClientJustWrote() {
+        Response created = create("Replicated later");
+        int eventId = created.path("id");
+        String primaryUntil = created.getCookie(PRIMARY_UNTIL);
+
+        given().when().get("/api/events/" + eventId).then().statusCode(404);
+        given().queryParam("limit", 500).when().get("/api/events/status/SCHEDULED")
+                .then()
+                .statusCode(200)
+                .body("items.id", not(hasItem(eventId)));
+
+        given().cookie(PRIMARY_UNTIL, primaryUntil)
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("title", is("Replicated later"));
+        given().cookie(PRIMARY_UNTIL, primaryUntil).queryParam("limit", 500)
+                .when().get("/api/events/status/SCHEDULED")
+                .then()
+                .statusCode(200)
+                .body("items.id", hasItem(eventId));
+    }
+
+    @Test
+    public void testListsAndSearchesUseTheReplica() {
+        Response created = create("Streamed from the replica");
+        int eventId = created.path("id");
+        String primaryUntil = created.getCookie(PRIMARY_UNTIL);
+
+        given().when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .body("id", not(hasItem(eventId)));
+        given().when().get("/api/events/status/SCHEDULED")
+                .then()
+                .statusCode(200)
+                .body("id", not(hasItem(eventId)));
+        given().queryParam("from", "2036-03-01T00:00:00").queryParam("to", "2036-03-02T00:00:00")
+                .when().get("/api/events/search")
+                .then()
+                .statusCode(200)
+                .body("items.id", not(hasItem(eventId)));
+        // The text index follows the primary, but its hits are read from the replica
+        given().queryParam("q", "streamed replica")
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("id", not(hasItem(eventId)));
+
+        given().cookie(PRIMARY_UNTIL, primaryUntil)
+                .when().get("/api/events")
+                .then()
+                .statusCode(200)
+                .body("id", hasItem(eventId));
+        given().cookie(PRIMARY_UNTIL, primaryUntil).queryParam("q", "streamed replica")
+                .when().get("/api/events/search/text")
+                .then()
+                .statusCode(200)
+                .body("id", hasItem(eventId));
+    }
+
+    @Test
+    public void testExpiredOrInvalidCookiesReadTheReplica() {
+        int eventId = create("Pinned briefly").path("id");
+
+        given().cookie(PRIMARY_UNTIL, "0").when().get("/api/events/" + eventId).then().statusCode(404);
+        given().cookie(PRIMARY_UNTIL, "soon").when().get("/api/events/" + eventId).then().statusCode(404);
+    }
+
+    @Test
+    public void testTransactionalWorkStaysOnThePrimary() {
+        int eventId = create("Written on the primary").path("id");
+
+        // Writes read the row they change from the primary, whatever the client sends
+        given().cookie(PRIMARY_UNTIL, "0").queryParam("status", "CANCELLED")
+                .when().patch("/api/events/" + eventId + "/status")
+                .then()
+                .statusCode(200)
+                .body("status", is("CANCELLED"))
+                .cookie(PRIMARY_UNTIL, notNullValue());
+
+        given()
+                .when().get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("events_reads_total{datasource=\"replica\"}"))
+                .body(containsString("events_reads_total{datasource=\"primary\"}"));
+    }
+
+    private static Response create(String title) {
+        String eventJson = """
+                {
+                    "title": "%s",
+                    "description": "Only on the primary",
+                    "location": "Primary Hall",
+                    "startDate": "2036-03-01T10:00:00",
+                    "endDate": "2036-03-01T12:00:00",
+                    "capacity": 25
+                }
+                """.formatted(title);
+        Response response = given().contentType(ContentType.JSON).body(eventJson).when().post("/api/events");
+        response.then().statusCode(201).cookie(PRIMARY_UNTIL, notNullValue());
+        return response;
+    }
+}
@@ -0,0 +1,177 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.service.StripedSeatPool;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+public class SeatReservationConcurrencyTest {
+
+    private static final int THREADS = 200;
+    private static final int CAPACITY = 150;
+    private static final int ATTEMPTS = 400;
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        int eventId = createEvent(CAPACITY);
+
+        List<Integer> statuses = hammer(() -> admitted(() -> given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": 1}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then().extract().statusCode()));
+
+        assertEquals(CAPACITY, statuses.stream().filter(status -> status == 201).count());
+        assertEquals(ATTEMPTS - CAPACITY, statuses.stream().filter(status -> status == 409).count());
+
+        given()
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("availableSeats", is(0));
+    }
+
+    @Test
+    public void testConcurrentReserveAndCancelKeepCountConsistent() throws Exception {
+        int eventId = createEvent(CAPACITY);
+        AtomicInteger turn = new AtomicInteger();
+
+        List<Integer> statuses = hammer(() -> {
+            boolean reserve = turn.getAndIncrement() % 2 == 0;
+            return admitted(() -> reserve
+                    ? given().contentType(ContentType.JSON).body("{\"seats\": 2}")
+                    .when().post("/api/events/" + eventId + "/reservations").then().extract().statusCode()
+                    : given().queryParam("seats", 1)
+                    .when().delete("/api/events/" + eventId + "/reservations").then().extract().statusCode());
+        });
+
+        long reservedSeats = 2 * statuses.stream().filter(status -> status == 201).count();
+        long releasedSeats = statuses.stream().filter(status -> status == 200).count();
+
+        given()
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("availableSeats", is((int) (CAPACITY - reservedSeats + releasedSeats)));
+    }
+
+    @Test
+    public void testReserveMoreThanAvailable() {
+        int eventId = createEvent(5);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": 6}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(409);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": 1}")
+                .when().post("/api/events/999/reservations")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testStripedPoolNeverOversells() throws Exception {
+        AtomicInteger database = new AtomicInteger(CAPACITY * 10);
+        StripedSeatPool pool = new StripedSeatPool(8);
+        AtomicInteger refills = new AtomicInteger();
+
+        List<Integer> results = hammer(() -> {
+            int taken = 0;
+            for (int i = 0; i < 10; i++) {
+                if (pool.take(1, missing -> {
+                    int granted = Math.max(missing, 50);
+                    if (database.get() < granted) {
+                        granted = database.get() >= missing ? missing : 0;
+                    }
+                    if (granted > 0) {
+                        refills.incrementAndGet();
+                        database.addAndGet(-granted);
+                    }
+                    return granted;
+                })) {
+                    taken++;
+                }
+            }
+            return taken;
+        });
+
+        int sold = results.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(CAPACITY * 10, sold + pool.close() + database.get());
+        assertEquals(CAPACITY * 10, sold);
+        assertEquals(CAPACITY * 10 / 50, refills.get());
+    }
+
+    private int createEvent(int capacity) {
+        String eventJson = """
+                {
+                    "title": "Hot On-Sale Event",
+                    "description": "Contended event",
+                    "location": "Arena",
+                    "startDate": "2026-12-20T20:00:00",
+                    "endDate": "2026-12-20T23:00:00",
+                    "capacity": %d
+                }
+                """.formatted(capacity);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson)
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    /**
+     * Sends a request again while admission control turns it away, as a client honouring Retry-After would.
+     */
+    static int admitted(Callable<Integer> request) throws Exception {
+        int status = request.call();
+        while (status == 503) {
+            Thread.sleep(10);
+            status = request.call();
+        }
+        return status;
+    }
+
+    private List<Integer> hammer(Callable<Integer> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
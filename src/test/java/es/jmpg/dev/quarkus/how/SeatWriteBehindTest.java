@@ -0,0 +1,188 @@
+package es.jmpg.dev.quarkus.how;
+
+import es.jmpg.dev.quarkus.how.entity.SeatAllotment;
+import es.jmpg.dev.quarkus.how.service.ReservationService;
+import es.jmpg.dev.quarkus.how.service.SeatInventory;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Flushes are driven by the tests, so the database only sees what a node sold once {@code flush()} runs.
+ */
+@QuarkusTest
+@TestProfile(SeatWriteBehindTest.WriteBehind.class)
+public class SeatWriteBehindTest {
+
+    private static final int CAPACITY = 150;
+    private static final int ATTEMPTS = 400;
+
+    public static class WriteBehind implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "events.reservations.write-behind.enabled", "true",
+                    "events.reservations.write-behind.chunk-size", "10",
+                    "events.reservations.write-behind.flush-interval", "off",
+                    "events.reservations.write-behind.idle-timeout", "PT1H",
+                    "events.cache.enabled", "false");
+        }
+    }
+
+    @Inject
+    ReservationService reservationService;
+
+    @Inject
+    SeatInventory seatInventory;
+
+    @Test
+    public void testSalesReachTheDatabaseOnFlush() {
+        int eventId = createEvent(20);
+
+        for (int i = 0; i < 3; i++) {
+            reserve(eventId, 1).statusCode(201);
+        }
+        assertAvailableSeats(eventId, 20);
+        assertEquals(10, allotted(eventId));
+
+        reservationService.flush();
+
+        assertAvailableSeats(eventId, 17);
+        assertEquals(7, allotted(eventId));
+    }
+
+    @Test
+    public void testCancelledSeatsThatWereNotFlushedGoBackToThePool() {
+        int eventId = createEvent(20);
+        reserve(eventId, 3).statusCode(201);
+
+        given().queryParam("seats", 2)
+                .when().delete("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(200);
+        reservationService.flush();
+        assertAvailableSeats(eventId, 19);
+
+        // Flushed seats are released in the database, and no more than were reserved
+        given().queryParam("seats", 1)
+                .when().delete("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(200)
+                .body("availableSeats", is(20));
+        given().queryParam("seats", 1)
+                .when().delete("/api/events/" + eventId + "/reservations")
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        int eventId = createEvent(CAPACITY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(100);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return SeatReservationConcurrencyTest.admitted(() -> reserve(eventId, 1).extract().statusCode());
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            assertEquals(CAPACITY, statuses.stream().filter(status -> status == 201).count());
+            assertEquals(ATTEMPTS - CAPACITY, statuses.stream().filter(status -> status == 409).count());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reservationService.flush();
+
+        assertAvailableSeats(eventId, 0);
+    }
+
+    @Test
+    public void testSeatsOfAnExpiredAllotmentAreReclaimed() {
+        int eventId = createEvent(5);
+        assertEquals(5, seatInventory.hold((long) eventId, "crashed-node", 5, 5, Duration.ofSeconds(1)));
+
+        reserve(eventId, 1).statusCode(409);
+        given().contentType(ContentType.JSON).body(eventJson(4))
+                .when().put("/api/events/" + eventId)
+                .then().statusCode(409);
+
+        assertEquals(5, seatInventory.reclaimExpired(LocalDateTime.now().plusSeconds(2)));
+
+        reserve(eventId, 5).statusCode(201);
+        reservationService.flush();
+        assertAvailableSeats(eventId, 0);
+    }
+
+    private static int allotted(int eventId) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                SeatAllotment.<SeatAllotment>find("eventId", (long) eventId).firstResult().seats);
+    }
+
+    private static ValidatableResponse reserve(int eventId, int seats) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("{\"seats\": " + seats + "}")
+                .when().post("/api/events/" + eventId + "/reservations")
+                .then();
+    }
+
+    private static void assertAvailableSeats(int eventId, int seats) {
+        given()
+                .when().get("/api/events/" + eventId)
+                .then()
+                .statusCode(200)
+                .body("availableSeats", is(seats));
+    }
+
+    private static int createEvent(int capacity) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(eventJson(capacity))
+                .when().post("/api/events")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+    }
+
+    private static String eventJson(int capacity) {
+        return """
+                {
+                    "title": "Write-Behind Event",
+                    "description": "Pooled seats",
+                    "location": "Arena",
+                    "startDate": "2026-12-21T20:00:00",
+                    "endDate": "2026-12-21T23:00:00",
+                    "capacity": %d
+                }
+                """.formatted(capacity);
+    }
+}
@@ -0,0 +1,23 @@
+package es.jmpg.dev.quarkus.how;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+/**
+ * Runs the whole {@link EventResourceTest} contract with requests on virtual threads.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadEventResourceTest.VirtualThreads.class)
+public class VirtualThreadEventResourceTest extends EventResourceTest {
+
+    public static class VirtualThreads implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("events.api.stack", "virtual");
+        }
+    }
+}
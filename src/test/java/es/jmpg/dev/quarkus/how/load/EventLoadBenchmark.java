@@ -0,0 +1,171 @@
+package es.jmpg.dev.quarkus.how.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.restassured.http.ContentType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop HTTP load against one API stack: at each concurrency level, that many clients send requests back to
+ * back for {@code load.duration} after a {@code load.warmup}, and throughput and latency percentiles are recorded.
+ * The mix is 70% keyset pages of 20 events and 30% single events, with the response cache off so every request
+ * reaches the database, and admission control off so every request is served. Results go to
+ * {@code build/results/load/<stack>.json}.
+ * Excluded from {@code test}; run all stacks with {@code ./gradlew loadBenchmark}.
+ */
+@Tag("load")
+public abstract class EventLoadBenchmark {
+
+    private static final int EVENTS = 1000;
+
+    @TestHTTPResource("/api/events")
+    URI eventsUri;
+
+    @ConfigProperty(name = "events.api.stack")
+    String stack;
+
+    @ConfigProperty(name = "load.levels", defaultValue = "1,16,64,256")
+    List<Integer> levels;
+
+    @ConfigProperty(name = "load.duration", defaultValue = "PT10S")
+    Duration duration;
+
+    @ConfigProperty(name = "load.warmup", defaultValue = "PT3S")
+    Duration warmup;
+
+    @ConfigProperty(name = "load.db-latency", defaultValue = "PT0S")
+    Duration dbLatency;
+
+    public record Result(String stack, int concurrency, long requests, long errors, double throughput,
+                         double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    @Test
+    public void measure() throws Exception {
+        long[] ids = seed();
+        List<Result> results = new ArrayList<>();
+        // Platform threads, so the clients do not compete with the server for the virtual thread carriers
+        try (ExecutorService clients = Executors.newCachedThreadPool(
+                Thread.ofPlatform().name("load-client-", 0).factory())) {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (int concurrency : levels) {
+                run(http, clients, ids, concurrency, warmup);
+                results.add(run(http, clients, ids, concurrency, duration));
+            }
+        }
+
+        System.out.printf("%n%s stack, %s simulated latency per statement%n", stack, dbLatency);
+        System.out.printf("%11s %10s %8s %10s %9s %9s%n", "concurrency", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        results.forEach(result -> System.out.printf("%11d %10.0f %8d %10.2f %9.2f %9.2f%n", result.concurrency,
+                result.throughput, result.errors, result.p50Millis, result.p99Millis, result.maxMillis));
+
+        Path file = Path.of("build", "results", "load", stack + ".json");
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+        assertTrue(results.stream().allMatch(result -> result.requests > 0));
+    }
+
+    private long[] seed() {
+        String body = IntStream.range(0, EVENTS)
+                .mapToObj(i -> """
+                        {"title": "Load Event %d", "description": "Seeded for the load benchmark",
+                         "location": "Hall %d", "startDate": "2033-01-01T10:00:00",
+                         "endDate": "2033-01-01T12:00:00", "capacity": 100}
+                        """.formatted(i, i % 20))
+                .collect(Collectors.joining(",", "[", "]"));
+        List<Integer> ids = given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when().post("/api/events/bulk")
+                .then()
+                .statusCode(200)
+                .extract().path("items.id");
+        return ids.stream().mapToLong(Integer::longValue).toArray();
+    }
+
+    private Result run(HttpClient http, ExecutorService clients, long[] ids, int concurrency, Duration length)
+            throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(clients.submit(() -> client(http, ids, deadline, errors)));
+        }
+        long[] latencies = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] own = worker.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + own.length);
+            System.arraycopy(own, 0, latencies, offset, own.length);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return new Result(stack, concurrency, latencies.length, errors.get(), latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private long[] client(HttpClient http, long[] ids, long deadline, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            URI uri = random.nextInt(10) < 7
+                    ? URI.create(eventsUri + "?limit=20&sort=startDate")
+                    : URI.create(eventsUri + "/" + ids[random.nextInt(ids.length)]);
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sent;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
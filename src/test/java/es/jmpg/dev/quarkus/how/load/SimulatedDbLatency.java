@@ -0,0 +1,32 @@
+package es.jmpg.dev.quarkus.how.load;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+
+/**
+ * Stands in for the network round trip of a remote database: every statement waits {@code load.db-latency}
+ * before it runs, inside its transaction, so request threads block and connections stay checked out as they would
+ * against Postgres. The in-memory H2 answers in microseconds, which would leave nothing for the stacks to differ on.
+ * Zero outside the load benchmarks.
+ */
+@PersistenceUnitExtension
+public class SimulatedDbLatency implements StatementInspector {
+
+    @ConfigProperty(name = "load.db-latency", defaultValue = "PT0S")
+    Duration latency;
+
+    @Override
+    public String inspect(String sql) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,21 @@
+package es.jmpg.dev.quarkus.how.load;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+@QuarkusTest
+@TestProfile(VirtualThreadLoadBenchmark.Profile.class)
+public class VirtualThreadLoadBenchmark extends EventLoadBenchmark {
+
+    public static class Profile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("events.api.stack", "virtual", "events.cache.enabled", "false",
+                    "events.admission.enabled", "false");
+        }
+    }
+}